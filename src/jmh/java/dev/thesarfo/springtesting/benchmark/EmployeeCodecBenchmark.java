@@ -0,0 +1,86 @@
+package dev.thesarfo.springtesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dev.thesarfo.springtesting.model.Employee;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Encode time and payload size of a getAllEmployees page per negotiated format, with and without the gzip
+// that server.compression applies. The payloadBytes counter in the results is the size of one encoded page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeCodecBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private ObjectWriter listWriter;
+    private List<Employee> employees;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> SmileMapper.builder().findAndAddModules().build();
+            case "cbor" -> CBORMapper.builder().findAndAddModules().build();
+            default -> JsonMapper.builder().findAndAddModules().build();
+        };
+        listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+        employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(Employee.builder()
+                    .id(i + 1)
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeList(Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * 64);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            listWriter.writeValue(out, employees);
+        }
+        payload.payloadBytes = bytes.size();
+        return bytes.toByteArray();
+    }
+}
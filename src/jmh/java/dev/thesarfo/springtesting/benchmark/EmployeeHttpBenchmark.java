@@ -0,0 +1,108 @@
+package dev.thesarfo.springtesting.benchmark;
+
+import dev.thesarfo.springtesting.SpringTestingApplication;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end employee endpoints over HTTP, platform-thread Tomcat vs virtual threads. Tomcat's pool is kept
+// small so that, in platform mode, it is the limit on concurrency just as it is in production. Throughput
+// and the SampleTime percentiles (p0.99) are the numbers to compare between the two virtualThreads params.
+// Add -jvmArgsAppend -Djdk.tracePinnedThreads=short to spot carrier pinning in the virtual-thread run.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class EmployeeHttpBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"20"})
+    public int tomcatMaxThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest getById;
+    private HttpRequest listPage;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(SpringTestingApplication.class)
+                .profiles("embedded")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        // all 64 threads are one client; rate limiting would turn the run into a 429/503 benchmark
+                        "employees.admission.enabled=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + tomcatMaxThreads)
+                .run();
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            employees.add(Employee.builder()
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("http" + i + "@gmail.com")
+                    .build());
+        }
+        EmployeeService employeeService = context.getBean(EmployeeService.class);
+        long id = employeeService.saveEmployees(employees).get(500).id();
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        getById = HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/" + id)).build();
+        listPage = HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees?limit=100")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getEmployeeById() throws IOException, InterruptedException {
+        return ok(client.send(getById, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    @Benchmark
+    public int listEmployees() throws IOException, InterruptedException {
+        return ok(client.send(listPage, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    // an error response is cheap to produce, so one would silently inflate the numbers
+    private static int ok(HttpResponse<Void> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.request().uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
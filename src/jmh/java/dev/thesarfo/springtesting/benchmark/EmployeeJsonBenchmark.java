@@ -0,0 +1,57 @@
+package dev.thesarfo.springtesting.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dev.thesarfo.springtesting.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson encoding of Employee payloads, as written by EmployeeController
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    private ObjectWriter listWriter;
+    private List<Employee> employees;
+
+    @Setup
+    public void setup() {
+        JsonMapper mapper = JsonMapper.builder().findAndAddModules().build();
+        listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+        employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(Employee.builder()
+                    .id(i + 1)
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(employees);
+    }
+}
@@ -0,0 +1,124 @@
+package dev.thesarfo.springtesting.benchmark;
+
+import dev.thesarfo.springtesting.SpringTestingApplication;
+import dev.thesarfo.springtesting.exception.ResourceNotFoundException;
+import dev.thesarfo.springtesting.model.CursorPage;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// service and repository hot paths against the in-process H2 "embedded" profile
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000"})
+    public int seedRows;
+
+    @Param({"10", "100", "500"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private EmployeeRepository employeeRepository;
+    private long existingId;
+    private String existingEmail;
+    private final AtomicLong nextEmail = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(SpringTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("embedded")
+                .properties("spring.jpa.show-sql=false")
+                .run();
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+
+        List<Employee> employees = new ArrayList<>(seedRows);
+        for (int i = 0; i < seedRows; i++) {
+            employees.add(Employee.builder()
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("seed" + i + "@gmail.com")
+                    .build());
+        }
+        employeeService.saveEmployees(employees);
+        Employee existing = employeeRepository.findByEmail("seed" + (seedRows / 2) + "@gmail.com").orElseThrow();
+        existingId = existing.getId();
+        existingEmail = existing.getEmail();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(existingId);
+    }
+
+    @Benchmark
+    public Optional<Employee> findByIdUncached() {
+        return employeeRepository.findById(existingId);
+    }
+
+    @Benchmark
+    public CursorPage<Employee> listPage() {
+        return employeeService.getEmployees(0, pageSize);
+    }
+
+    @Benchmark
+    public List<Employee> getAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    @Benchmark
+    public Employee saveEmployee() {
+        return employeeService.saveEmployee(Employee.builder()
+                .firstName("bench")
+                .lastName("mark")
+                .email("bench" + nextEmail.incrementAndGet() + "@gmail.com")
+                .build());
+    }
+
+    @Benchmark
+    public Object saveDuplicateEmployee() {
+        try {
+            return employeeService.saveEmployee(Employee.builder()
+                    .firstName("bench")
+                    .lastName("mark")
+                    .email(existingEmail)
+                    .build());
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+}
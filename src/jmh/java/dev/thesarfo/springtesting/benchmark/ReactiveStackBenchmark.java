@@ -0,0 +1,104 @@
+package dev.thesarfo.springtesting.benchmark;
+
+import dev.thesarfo.springtesting.SpringTestingApplication;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Servlet (Tomcat + JPA) vs reactive (Netty + R2DBC) read path on the same in-process H2 database.
+// The table is seeded with fewer rows than the servlet page cap so both list calls return every row.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class ReactiveStackBenchmark {
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    @Param({"500"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest getById;
+    private HttpRequest listAll;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        // "embedded" last so its H2 R2DBC url overrides the MySQL one from "reactive"
+        String[] profiles = stack.equals("reactive")
+                ? new String[] {"reactive", "embedded"}
+                : new String[] {"embedded"};
+        context = new SpringApplicationBuilder(SpringTestingApplication.class)
+                .profiles(profiles)
+                // all 64 threads are one client; rate limiting would turn the run into a 429/503 benchmark
+                .properties("server.port=0", "spring.jpa.show-sql=false", "employees.admission.enabled=false")
+                .run();
+
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            employees.add(Employee.builder()
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("stack" + i + "@gmail.com")
+                    .build());
+        }
+        long id = context.getBean(EmployeeService.class).saveEmployees(employees).get(rows / 2).id();
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        getById = HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees/" + id)).build();
+        listAll = HttpRequest.newBuilder(URI.create(baseUrl + "/api/employees?limit=" + rows)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getEmployeeById() throws IOException, InterruptedException {
+        return ok(client.send(getById, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    @Benchmark
+    public int listEmployees() throws IOException, InterruptedException {
+        return ok(client.send(listAll, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    // an error response is cheap to produce, so one would silently inflate the numbers
+    private static int ok(HttpResponse<Void> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.request().uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
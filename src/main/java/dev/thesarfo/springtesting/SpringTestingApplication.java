@@ -2,12 +2,24 @@ package dev.thesarfo.springtesting;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class SpringTestingApplication {
 
+    static final int STARTUP_STEP_CAPACITY = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(SpringTestingApplication.class, args);
+        application().run(args);
+    }
+
+    // startup steps are kept in memory and served at /actuator/startup
+    static SpringApplication application() {
+        SpringApplication application = new SpringApplication(SpringTestingApplication.class);
+        // deduced from the stack only when started through main(); AOT mode needs it to find the generated initializer
+        application.setMainApplicationClass(SpringTestingApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        return application;
     }
 
 }
@@ -0,0 +1,150 @@
+package dev.thesarfo.springtesting.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs before the employee controllers and turns excess load away before it reaches the database.
+// First the client's token bucket, keyed on the authenticated principal or else the remote address (which
+// server.forward-headers-strategy resolves through trusted proxies only). Never on a client-supplied header:
+// rotating it would buy a fresh bucket per request and push other clients' buckets out. An empty bucket is a
+// 429 with Retry-After set to when the next token arrives.
+// Then a slot in the endpoint class's concurrency limit: a request waits at most queue-timeout for one and
+// otherwise gets a 503. Streaming responses keep their slot until the async dispatch completes.
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final ClientRateLimiter rateLimiter;
+    private final long queueTimeoutNanos;
+    private final Map<EndpointClass, Semaphore> slots = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Timer> queueTimes = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rateLimited = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> overloaded = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, ClientRateLimiter rateLimiter,
+                                  MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.queueTimeoutNanos = properties.queueTimeout().toNanos();
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            int limit = properties.concurrency().of(endpoint);
+            Semaphore semaphore = new Semaphore(limit);
+            slots.put(endpoint, semaphore);
+            Gauge.builder("employees.admission.in-flight", semaphore, s -> limit - s.availablePermits())
+                    .description("Requests holding a concurrency slot")
+                    .tag("endpoint", endpoint.tag())
+                    .register(meterRegistry);
+            queueTimes.put(endpoint, Timer.builder("employees.admission.queue")
+                    .description("Time spent waiting for a concurrency slot")
+                    .tag("endpoint", endpoint.tag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            rateLimited.put(endpoint, rejections(meterRegistry, endpoint, "rate_limited"));
+            overloaded.put(endpoint, rejections(meterRegistry, endpoint, "overloaded"));
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, EndpointClass endpoint, String reason) {
+        return Counter.builder("employees.admission.rejected")
+                .description("Requests turned away by admission control")
+                .tag("endpoint", endpoint.tag())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = EndpointClass.of(request);
+
+        long wait = rateLimiter.tryAcquire(client(request));
+        if (wait > 0) {
+            rateLimited.get(endpoint).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, Duration.ofNanos(wait));
+            return;
+        }
+
+        Semaphore semaphore = slots.get(endpoint);
+        long queued = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = semaphore.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        queueTimes.get(endpoint).record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+        if (!admitted) {
+            overloaded.get(endpoint).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1));
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private static String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "addr:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, Duration retryAfter) {
+        // Retry-After is whole seconds; round up so a client that honours it is admitted
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+    }
+
+    private record ReleaseOnCompletion(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
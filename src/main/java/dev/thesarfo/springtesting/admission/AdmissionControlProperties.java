@@ -0,0 +1,27 @@
+package dev.thesarfo.springtesting.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("employees.admission")
+public record AdmissionControlProperties(@DefaultValue("50") double ratePerSecond,
+                                         @DefaultValue("100") int burst,
+                                         @DefaultValue("100000") long maxClients,
+                                         @DefaultValue("100ms") Duration queueTimeout,
+                                         @DefaultValue Concurrency concurrency) {
+
+    public record Concurrency(@DefaultValue("8") int list,
+                              @DefaultValue("64") int point,
+                              @DefaultValue("16") int write) {
+
+        int of(EndpointClass endpoint) {
+            return switch (endpoint) {
+                case LIST -> list;
+                case POINT -> point;
+                case WRITE -> write;
+            };
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package dev.thesarfo.springtesting.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// A token bucket per client, kept as a single AtomicLong: the time at which the bucket would be full again
+// (the generic cell rate algorithm). Taking a token is one CAS, so there are no locks on the request path.
+// Clients idle long enough to have a full bucket carry no state and are evicted; the table is also capped.
+public class ClientRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+    private final Cache<String, AtomicLong> buckets;
+
+    public ClientRateLimiter(double ratePerSecond, int burst, long maxClients) {
+        this(ratePerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(double ratePerSecond, int burst, long maxClients, LongSupplier nanoTime) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate-per-second must be positive and burst at least 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    // 0 when the request may go ahead, otherwise how long the client has to wait for a token
+    public long tryAcquire(String client) {
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = fullAt.get();
+            long start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = start + intervalNanos;
+            long over = next - now - burstNanos;
+            if (over > 0) {
+                return over;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package dev.thesarfo.springtesting.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Set;
+
+// how expensive a request is for the database: pages and scans, single-row reads, or anything that writes
+public enum EndpointClass {
+    LIST,
+    POINT,
+    WRITE;
+
+    private static final Set<String> LIST_PATHS = Set.of("/api/employees", "/api/employees/search", "/api/employees/export");
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return LIST_PATHS.contains(path) ? LIST : POINT;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
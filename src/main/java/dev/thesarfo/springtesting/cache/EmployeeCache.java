@@ -0,0 +1,87 @@
+package dev.thesarfo.springtesting.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import dev.thesarfo.springtesting.model.Employee;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongFunction;
+
+// read-through cache for single-employee lookups. Misses are cached too, but only for negativeTtl,
+// so an id that is about to be created doesn't stay "not found" for long.
+// The loader never runs inside Caffeine's map compute: that holds a monitor, and blocking on JDBC there would
+// pin a virtual thread's carrier. Instead the first caller installs an empty future and loads on its own thread.
+@Component
+public class EmployeeCache {
+
+    private final AsyncCache<Long, Optional<Employee>> cache;
+
+    public EmployeeCache(MeterRegistry meterRegistry,
+                         @Value("${employees.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${employees.cache.ttl:5m}") Duration ttl,
+                         @Value("${employees.cache.negative-ttl:5s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<Employee>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<Employee> employee, long currentTime) {
+                        return (employee.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<Employee> employee, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(id, employee, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<Employee> employee, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "employeesById");
+    }
+
+    public Optional<Employee> get(long id, LongFunction<Optional<Employee>> loader) {
+        CompletableFuture<Optional<Employee>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<Employee>> cached = cache.get(id, (key, executor) -> loading);
+        if (cached == loading) {
+            // load on the caller's thread so it keeps its transaction context
+            try {
+                loading.complete(loader.apply(id));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // removing an in-flight future also stops its result from being cached when the load finishes
+    public void invalidate(long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
@@ -1,28 +1,70 @@
 package dev.thesarfo.springtesting.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.thesarfo.springtesting.exception.ResourceNotFoundException;
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.BulkDeleteRequest;
+import dev.thesarfo.springtesting.model.BulkDeleteResult;
+import dev.thesarfo.springtesting.model.CursorPage;
 import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.EmployeeField;
 import dev.thesarfo.springtesting.repository.EmployeeRepository;
 import dev.thesarfo.springtesting.service.EmployeeService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String VERSION = "version";
+    private static final Set<EmployeeField> EDITABLE_FIELDS =
+            EnumSet.of(EmployeeField.FIRST_NAME, EmployeeField.LAST_NAME, EmployeeField.EMAIL);
+
     private EmployeeService employeeService;
+    private final ObjectWriter employeeWriter;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.employeeWriter = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @PostMapping
@@ -31,17 +73,225 @@ public class EmployeeController {
         return employeeService.saveEmployee(employee);
     }
 
-    @GetMapping
+    @PostMapping("/batch")
     @ResponseStatus(HttpStatus.OK)
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public List<BatchSaveResult> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    // the body stays a plain array; the cursor for the next page travels in the headers.
+    // ?fields=id,email returns only those columns (id is always included) instead of full employees.
+    // The ETag is the table-level change marker, so If-None-Match is answered before any query runs
+    @GetMapping
+    public ResponseEntity<List<?>> getAllEmployees(@RequestParam(name = "after", defaultValue = "0") long after,
+                                                   @RequestParam(name = "limit",
+                                                           defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE)
+                                                   int limit,
+                                                   @RequestParam(name = "fields", required = false) String fields,
+                                                   WebRequest webRequest,
+                                                   HttpServletResponse servletResponse) {
+        if (webRequest.checkNotModified(weakETag(employeeService.getEmployeesVersion()))) {
+            // checkNotModified has already set 304 and the ETag header
+            return null;
+        }
+        CursorPage<?> page = fields == null
+                ? employeeService.getEmployees(after, limit)
+                : employeeService.getEmployeeFields(after, limit, parseFields(fields));
+        if (page.version() != null) {
+            // replace the tag checkNotModified set with the version read alongside the rows: a write may have
+            // committed in between
+            servletResponse.setHeader(HttpHeaders.ETAG, weakETag(page.version()));
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.nextCursor())
+                    .replaceQueryParam("limit", page.items().size())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()))
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+
+    private static Set<EmployeeField> parseFields(String fields) {
+        try {
+            return EmployeeField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // newline-delimited JSON, one employee per line, written page by page as the service reads them
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportEmployees() {
+        return out -> {
+            try (JsonGenerator generator = employeeWriter.createGenerator(out)) {
+                // we write the newline ourselves, so suppress Jackson's default space between root values
+                generator.setRootValueSeparator(null);
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        employeeWriter.writeValue(generator, employee);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
+    // PUT replaces every editable field, PATCH only the ones sent (a JSON merge patch; null clears email).
+    // Either way the expected version comes from If-Match - the ETag of GET /{id} - or a "version" field, and
+    // a mismatch is a lost update: 412. Success is 204 with the new ETag, so no row is read back
+    @PutMapping("{id}")
+    public ResponseEntity<Void> replaceEmployee(@PathVariable("id") long employeeId,
+                                                @RequestBody Map<String, Object> body,
+                                                @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Map<EmployeeField, String> changes = toChanges(employeeId, body);
+        for (EmployeeField field : EDITABLE_FIELDS) {
+            changes.putIfAbsent(field, null);
+        }
+        return updateEmployeeFields(employeeId, body, ifMatch, changes);
+    }
+
+    @PatchMapping(value = "{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") long employeeId,
+                                              @RequestBody Map<String, Object> body,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Map<EmployeeField, String> changes = toChanges(employeeId, body);
+        if (changes.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to update");
+        }
+        return updateEmployeeFields(employeeId, body, ifMatch, changes);
     }
 
+    private ResponseEntity<Void> updateEmployeeFields(long employeeId, Map<String, Object> body, String ifMatch,
+                                                      Map<EmployeeField, String> changes) {
+        long expectedVersion = expectedVersion(body, ifMatch);
+        OptionalLong version;
+        try {
+            version = employeeService.updateEmployeeFields(employeeId, expectedVersion, changes);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Employee " + employeeId + " has changed since version " + expectedVersion, e);
+        } catch (ResourceNotFoundException e) {
+            // thrown for a duplicate email, as on create
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().eTag(weakETag(version.getAsLong())).build();
+    }
+
+    // a body copied from GET carries id and version; id may stay as long as it names the same employee
+    private static Map<EmployeeField, String> toChanges(long employeeId, Map<String, Object> body) {
+        Map<EmployeeField, String> changes = new EnumMap<>(EmployeeField.class);
+        body.forEach((key, value) -> {
+            if (VERSION.equals(key)
+                    || (EmployeeField.ID.attribute().equals(key) && value instanceof Number id && id.longValue() == employeeId)) {
+                return;
+            }
+            EmployeeField field;
+            try {
+                field = EmployeeField.fromAttribute(key);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+            }
+            if (!EDITABLE_FIELDS.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, key + " cannot be changed");
+            }
+            if (value != null && !(value instanceof String)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, key + " must be a string");
+            }
+            changes.put(field, (String) value);
+        });
+        return changes;
+    }
+
+    private static long expectedVersion(Map<String, Object> body, String ifMatch) {
+        if (ifMatch != null && !ifMatch.isBlank() && !"*".equals(ifMatch.trim())) {
+            String tag = ifMatch.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.startsWith("\"") && tag.endsWith("\"") && tag.length() > 1) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            try {
+                return Long.parseLong(tag);
+            } catch (NumberFormatException e) {
+                // not one of our ETags, so it can't match the current version
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Unknown ETag " + ifMatch, e);
+            }
+        }
+        if (body.get(VERSION) instanceof Number version) {
+            return version.longValue();
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,
+                "Send If-Match with the employee's ETag, or its version in the body");
+    }
+
+    @DeleteMapping("{id}")
+    public ResponseEntity<Void> deleteEmployee(@PathVariable("id") long employeeId) {
+        return employeeService.deleteEmployee(employeeId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // {"ids": [...]} or {"filter": {"lastName": "stark"}}; the response carries the real number of rows deleted
+    @DeleteMapping
+    public BulkDeleteResult deleteEmployees(@RequestBody BulkDeleteRequest request) {
+        boolean byIds = request.ids() != null;
+        boolean byFilter = request.filter() != null;
+        if (byIds == byFilter) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Send either ids or filter");
+        }
+        if (byIds) {
+            return new BulkDeleteResult(employeeService.deleteEmployees(request.ids()));
+        }
+        Map<EmployeeField, String> filter = new EnumMap<>(EmployeeField.class);
+        try {
+            request.filter().forEach((key, value) -> {
+                EmployeeField field = EmployeeField.fromAttribute(key);
+                field.parseValue(value);
+                filter.put(field, value);
+            });
+            return new BulkDeleteResult(employeeService.deleteEmployeesMatching(filter));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    // typeahead over first name, last name and email, answered from the in-memory index
+    @GetMapping("/search")
+    public List<Employee> searchEmployees(@RequestParam("q") String query,
+                                          @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return employeeService.searchEmployees(query, limit);
+    }
+
+    // ETag from the @Version column; a matching If-None-Match gets a bodiless 304
     @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId) {
-        return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId, WebRequest webRequest) {
+        Optional<Employee> employee = employeeService.getEmployeeById(employeeId);
+        if (employee.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = weakETag(employee.get().getVersion());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(employee.get());
+    }
+
+    // Weak, because one version is served as JSON, Smile or CBOR, gzipped or not, and Tomcat will not compress
+    // a response carrying a strong ETag. The tag still names exactly one row (or list) version, which is why
+    // If-Match accepts it for PUT and PATCH
+    private static String weakETag(Object version) {
+        return "W/\"" + version + "\"";
     }
 
 }
@@ -0,0 +1,64 @@
+package dev.thesarfo.springtesting.controller;
+
+import dev.thesarfo.springtesting.ingest.EmployeeCsvImporter;
+import dev.thesarfo.springtesting.model.ImportJobStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/employees/import")
+public class EmployeeImportController {
+
+    private final EmployeeCsvImporter csvImporter;
+
+    public EmployeeImportController(EmployeeCsvImporter csvImporter) {
+        this.csvImporter = csvImporter;
+    }
+
+    // the upload is moved to a file of our own, because the multipart part is deleted when this request ends
+    // and the import keeps reading it in the background
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobStatus> importEmployees(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV file is empty");
+        }
+        Path upload = Files.createTempFile("employees-import-", ".csv");
+        try {
+            file.transferTo(upload);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        ImportJobStatus job = csvImporter.submit(upload);
+        URI status = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.jobId())
+                .toUri();
+        return ResponseEntity.accepted().location(status).body(job);
+    }
+
+    @GetMapping("{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(@PathVariable("jobId") UUID jobId) {
+        return csvImporter.status(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
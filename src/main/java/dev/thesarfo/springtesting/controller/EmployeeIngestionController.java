@@ -0,0 +1,53 @@
+package dev.thesarfo.springtesting.controller;
+
+import dev.thesarfo.springtesting.ingest.EmployeeIngestionQueue;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.IngestionStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/employees/async")
+public class EmployeeIngestionController {
+
+    private final EmployeeIngestionQueue ingestionQueue;
+
+    public EmployeeIngestionController(EmployeeIngestionQueue ingestionQueue) {
+        this.ingestionQueue = ingestionQueue;
+    }
+
+    @PostMapping
+    public ResponseEntity<IngestionStatus> createEmployeeAsync(@RequestBody Employee employee) {
+        return ingestionQueue.offer(employee)
+                .map(trackingId -> {
+                    URI status = ServletUriComponentsBuilder.fromCurrentRequest()
+                            .path("/{trackingId}")
+                            .buildAndExpand(trackingId)
+                            .toUri();
+                    return ResponseEntity.accepted().location(status).body(IngestionStatus.queued(trackingId));
+                })
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    @GetMapping("{trackingId}")
+    public ResponseEntity<IngestionStatus> getIngestionStatus(@PathVariable("trackingId") UUID trackingId) {
+        return ingestionQueue.status(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
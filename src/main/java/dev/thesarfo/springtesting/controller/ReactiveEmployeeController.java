@@ -0,0 +1,54 @@
+package dev.thesarfo.springtesting.controller;
+
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.reactive.EmployeeReactiveRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// read API served by WebFlux when the app runs with the "reactive" profile
+@RestController
+@RequestMapping("/api/employees")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEmployeeController {
+
+    private final EmployeeReactiveRepository employeeRepository;
+
+    public ReactiveEmployeeController(EmployeeReactiveRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    // streamed as a JSON array (or NDJSON with Accept: application/x-ndjson) at the pace the client reads
+    @GetMapping
+    public Flux<Employee> getAllEmployees() {
+        return employeeRepository.findAll();
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId) {
+        return employeeRepository.findById(employeeId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/by-email")
+    public Mono<ResponseEntity<Employee>> getEmployeeByEmail(@RequestParam("email") String email) {
+        return employeeRepository.findByEmail(email)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/by-name")
+    public Mono<ResponseEntity<Employee>> getEmployeeByName(@RequestParam("firstName") String firstName,
+                                                            @RequestParam("lastName") String lastName) {
+        return employeeRepository.findByFirstNameAndLastName(firstName, lastName)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,183 @@
+package dev.thesarfo.springtesting.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Resizes the primary Hikari pool between min-size and max-size from what the last interval looked like.
+// Threads waiting for a connection while connections are held no longer than usual means the pool is the
+// bottleneck, so it grows. Waiting while connections are held well above the best seen means MySQL is
+// saturating and more connections would only lengthen its queue, so it shrinks. A mostly idle pool shrinks
+// one connection at a time. Idle connections above the new size are retired by Hikari after idle-timeout.
+@Component
+@ConditionalOnProperty(name = "employees.datasource.pool.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    // the usage baseline creeps up 2% a tick so a permanently slower query mix becomes the new normal
+    private static final double BASELINE_DRIFT = 1.02;
+    private static final double SHRINK_BELOW_UTILISATION = 0.5;
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final int minSize;
+    private final int maxSize;
+    private final Duration interval;
+    private final long targetAcquireNanos;
+    private final double latencyTolerance;
+    private final Counter grown;
+    private final Counter shrunk;
+
+    private final Window acquireWindow = new Window();
+    private final Window usageWindow = new Window();
+    private double baselineUsageNanos = Double.NaN;
+    private long lastTick = System.nanoTime();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public AdaptivePoolSizer(HikariDataSource dataSource,
+                             MeterRegistry meterRegistry,
+                             @Value("${employees.datasource.pool.min-size:10}") int minSize,
+                             @Value("${employees.datasource.pool.max-size:30}") int maxSize,
+                             @Value("${employees.datasource.pool.adaptive.interval:10s}") Duration interval,
+                             @Value("${employees.datasource.pool.adaptive.target-acquire:5ms}") Duration targetAcquire,
+                             @Value("${employees.datasource.pool.adaptive.latency-tolerance:1.5}") double latencyTolerance) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Pool bounds must satisfy 1 <= min-size <= max-size");
+        }
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.interval = interval;
+        this.targetAcquireNanos = targetAcquire.toNanos();
+        this.latencyTolerance = latencyTolerance;
+        this.grown = resizes(meterRegistry, "grow");
+        this.shrunk = resizes(meterRegistry, "shrink");
+    }
+
+    private Counter resizes(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("employees.datasource.pool.resizes")
+                .description("Maximum pool size changes made by the adaptive sizer")
+                .tag("pool", String.valueOf(dataSource.getPoolName()))
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    // one control step; runs on the scheduler, and directly from tests
+    void tick() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        Timer acquire = timer("hikaricp.connections.acquire");
+        Timer usage = timer("hikaricp.connections.usage");
+        if (pool == null || acquire == null || usage == null) {
+            // the pool starts on first use, and its meters with it
+            return;
+        }
+        long now = System.nanoTime();
+        long elapsed = Math.max(1, now - lastTick);
+        lastTick = now;
+        Window.Delta acquired = acquireWindow.next(acquire);
+        Window.Delta used = usageWindow.next(usage);
+
+        int current = dataSource.getMaximumPoolSize();
+        boolean waiting = pool.getThreadsAwaitingConnection() > 0
+                || (acquired.count() > 0 && acquired.mean() > targetAcquireNanos);
+        boolean databaseSlower = used.count() > 0 && !Double.isNaN(baselineUsageNanos)
+                && used.mean() > baselineUsageNanos * latencyTolerance;
+        double utilisation = used.totalNanos() / ((double) elapsed * current);
+
+        int target = current;
+        if (waiting && databaseSlower) {
+            target = current - 1;
+        } else if (waiting) {
+            target = current + Math.max(1, current / 4);
+        } else if (utilisation < SHRINK_BELOW_UTILISATION) {
+            target = current - 1;
+        }
+        target = Math.max(minSize, Math.min(maxSize, target));
+
+        if (used.count() > 0) {
+            baselineUsageNanos = Double.isNaN(baselineUsageNanos)
+                    ? used.mean()
+                    : Math.min(used.mean(), baselineUsageNanos * BASELINE_DRIFT);
+        }
+        if (target != current) {
+            dataSource.getHikariConfigMXBean().setMaximumPoolSize(target);
+            (target > current ? grown : shrunk).increment();
+            log.info("Resized pool {} from {} to {} (acquire {}us, usage {}us, baseline {}us, waiting {})",
+                    dataSource.getPoolName(), current, target, micros(acquired.mean()), micros(used.mean()),
+                    micros(baselineUsageNanos), pool.getThreadsAwaitingConnection());
+        }
+    }
+
+    private Timer timer(String name) {
+        return meterRegistry.find(name).tag("pool", dataSource.getPoolName()).timer();
+    }
+
+    private static long micros(double nanos) {
+        return Double.isNaN(nanos) ? -1 : (long) (nanos / 1_000);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("pool-sizer").daemon(true).factory());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                log.warn("Adaptive pool sizing step failed", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // what a timer recorded since the previous tick
+    private static final class Window {
+
+        record Delta(long count, double totalNanos) {
+
+            double mean() {
+                return count == 0 ? Double.NaN : totalNanos / count;
+            }
+        }
+
+        private long count;
+        private double totalNanos;
+
+        Delta next(Timer timer) {
+            long nowCount = timer.count();
+            double nowTotal = timer.totalTime(TimeUnit.NANOSECONDS);
+            Delta delta = new Delta(nowCount - count, nowTotal - totalNanos);
+            count = nowCount;
+            totalNanos = nowTotal;
+            return delta;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dev.thesarfo.springtesting.datasource;
+
+// Per-thread marker that the caller has committed a write recently. Once set, read-only transactions on the
+// same thread go to the primary so the caller never reads a replica that has not caught up yet.
+// ReadYourWritesFilter scopes it to one request and carries it to the same client's next requests for a short
+// window; threads outside a request (the ingest writer, import jobs, startup loads) clear it when their unit of
+// work ends.
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> WRITTEN = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void markWritten() {
+        WRITTEN.set(Boolean.TRUE);
+    }
+
+    public static boolean hasWritten() {
+        return WRITTEN.get() != null;
+    }
+
+    public static void clear() {
+        WRITTEN.remove();
+    }
+}
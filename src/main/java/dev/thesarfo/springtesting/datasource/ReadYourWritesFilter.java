@@ -0,0 +1,76 @@
+package dev.thesarfo.springtesting.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Scopes the read-your-writes marker to one request, so pooled threads never carry it into the next one. A
+// request that commits a write also gets a cookie with the write time; while that is younger than window the
+// client's following requests start with the marker set, so a read right after a write is not sent to a replica
+// that is still behind. A forged or replayed cookie can only move reads to the primary.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "employees-written-at";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReadYourWrites.clear();
+        if (wroteRecently(request)) {
+            ReadYourWrites.markWritten();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    long age = System.currentTimeMillis() - Long.parseLong(cookie.getValue());
+                    return age >= 0 && age < window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    // called after a write commits; outside a request, or once the response is committed, there is no one to tell
+    static void rememberWrite(Duration window) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getResponse() == null || attributes.getResponse().isCommitted()
+                || attributes.getAttribute(COOKIE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+        attributes.setAttribute(COOKIE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis()));
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        attributes.getResponse().addCookie(cookie);
+    }
+}
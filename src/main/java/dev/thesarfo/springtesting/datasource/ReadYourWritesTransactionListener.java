@@ -0,0 +1,24 @@
+package dev.thesarfo.springtesting.datasource;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+public class ReadYourWritesTransactionListener implements TransactionExecutionListener {
+
+    private final Duration window;
+
+    public ReadYourWritesTransactionListener(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            ReadYourWrites.markWritten();
+            ReadYourWritesFilter.rememberWrite(window);
+        }
+    }
+}
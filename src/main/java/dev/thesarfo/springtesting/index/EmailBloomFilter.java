@@ -0,0 +1,205 @@
+package dev.thesarfo.springtesting.index;
+
+import dev.thesarfo.springtesting.datasource.ReadYourWrites;
+import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Bloom filter over existing employee emails. A "no" is definite, so saveEmployee can skip the findByEmail
+// SELECT; a "maybe" still goes to the database. The unique index on email is what actually guarantees
+// correctness, so a stale or not-yet-loaded filter only costs extra queries.
+@Component
+public class EmailBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int numBits;
+    private final int numHashes;
+    private final long rebuildAfterDeletes;
+
+    private volatile AtomicLongArray bits;
+    private volatile AtomicLongArray rebuilding;
+    private volatile boolean loaded;
+
+    private final AtomicBoolean rebuildInProgress = new AtomicBoolean();
+    private final AtomicLong deletesSinceBuild = new AtomicLong();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmailBloomFilter(EmployeeRepository employeeRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${employees.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${employees.email-filter.fpp:0.01}") double fpp) {
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        // standard sizing: m = -n ln p / (ln 2)^2 bits, k = m/n ln 2 hash functions
+        double optimalBits = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        long words = Math.max(1, (long) Math.ceil(Math.min(optimalBits, Integer.MAX_VALUE - 64) / 64));
+        this.numBits = (int) (words * 64);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.rebuildAfterDeletes = Math.max(1, expectedInsertions / 10);
+        this.bits = new AtomicLongArray((int) words);
+
+        Gauge.builder("employees.email.filter.fpp", this, EmailBloomFilter::expectedFalsePositiveRate)
+                .description("False-positive probability implied by the current fill of the email filter")
+                .register(meterRegistry);
+        Gauge.builder("employees.email.filter.observed.fpp", this, EmailBloomFilter::observedFalsePositiveRate)
+                .description("Share of absent emails the filter reported as maybe present")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            rebuild();
+        } finally {
+            // runs on the main thread, which must not keep a marker left by startup writes
+            ReadYourWrites.clear();
+        }
+    }
+
+    public boolean mightContain(String email) {
+        if (email == null) {
+            return false;
+        }
+        if (!loaded) {
+            return true;
+        }
+        AtomicLongArray current = bits;
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int index = bitIndex(h1, h2, i);
+            if ((current.get(index >>> 6) & (1L << index)) == 0) {
+                negatives.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        // read the rebuild target first: it is cleared only after bits has been swapped, so the bit always
+        // lands in whichever array survives
+        AtomicLongArray next = rebuilding;
+        setBits(bits, email);
+        if (next != null) {
+            setBits(next, email);
+        }
+    }
+
+    // called when a "maybe present" turned out to be absent in the database
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    // bits cannot be cleared, so deleted emails stay as false positives until enough pile up to rebuild
+    public void recordDeletions(long count) {
+        if (count > 0 && deletesSinceBuild.addAndGet(count) >= rebuildAfterDeletes && !rebuildInProgress.get()) {
+            Thread.ofVirtual().name("email-filter-rebuild").start(this::rebuild);
+        }
+    }
+
+    public void rebuild() {
+        if (!rebuildInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            AtomicLongArray fresh = new AtomicLongArray(bits.length());
+            rebuilding = fresh;
+            deletesSinceBuild.set(0);
+            Long count = readOnlyTransaction.execute(status -> {
+                try (Stream<String> emails = employeeRepository.streamAllEmails()) {
+                    // not peek + count: count() may skip the pipeline when the stream size is known
+                    return emails.mapToLong(email -> {
+                        setBits(fresh, email);
+                        return 1;
+                    }).sum();
+                }
+            });
+            bits = fresh;
+            rebuilding = null;
+            loaded = true;
+            log.info("Loaded {} emails into the duplicate-email filter ({} bits, {} hashes)", count, numBits, numHashes);
+        } catch (RuntimeException e) {
+            rebuilding = null;
+            log.warn("Could not load the duplicate-email filter, every save will query the database", e);
+        } finally {
+            rebuildInProgress.set(false);
+        }
+    }
+
+    double expectedFalsePositiveRate() {
+        AtomicLongArray current = bits;
+        long setBits = 0;
+        for (int i = 0; i < current.length(); i++) {
+            setBits += Long.bitCount(current.get(i));
+        }
+        return Math.pow((double) setBits / numBits, numHashes);
+    }
+
+    double observedFalsePositiveRate() {
+        long fp = falsePositives.sum();
+        long total = fp + negatives.sum();
+        return total == 0 ? 0.0 : (double) fp / total;
+    }
+
+    private void setBits(AtomicLongArray target, String email) {
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int index = bitIndex(h1, h2, i);
+            long mask = 1L << index;
+            target.getAndAccumulate(index >>> 6, mask, (word, bit) -> word | bit);
+        }
+    }
+
+    private int bitIndex(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        if (combined < 0) {
+            combined = ~combined;
+        }
+        return combined % numBits;
+    }
+
+    // MySQL's default collation compares emails case-insensitively, so the filter must too
+    private static long hash(String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h ^= normalized.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53e87a5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
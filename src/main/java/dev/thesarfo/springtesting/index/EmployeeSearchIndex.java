@@ -0,0 +1,303 @@
+package dev.thesarfo.springtesting.index;
+
+import dev.thesarfo.springtesting.cache.AfterCommit;
+import dev.thesarfo.springtesting.datasource.ReadYourWrites;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Typeahead index over first name, last name and email. Tokens live in a sorted skip list, so a prefix is a
+// range scan (subMap) instead of a LIKE 'abc%' table scan. Built once at startup, then kept current by the
+// EmployeeService write methods.
+@Component
+public class EmployeeSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+
+    public static final int MAX_RESULTS = 50;
+
+    // cap on how many matching employees one query ranks, so a one-letter query stays close to a long one in cost
+    static final int MAX_CANDIDATES = 2000;
+
+    private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> tokens = new ConcurrentSkipListMap<>();
+    private final Map<Long, Entry> employees = new ConcurrentHashMap<>();
+
+    // set only while load() runs: ids deleted meanwhile, which the rows it reads must not bring back, and ids
+    // whose targeted update found no entry yet, which it reads again once the scan is done
+    private volatile Set<Long> removedDuringLoad;
+    private volatile Set<Long> missedDuringLoad;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // writes keep indexing while this runs; a row it reads never replaces a newer version or revives a deletion
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Set<Long> removed = ConcurrentHashMap.newKeySet();
+        Set<Long> missed = ConcurrentHashMap.newKeySet();
+        removedDuringLoad = removed;
+        missedDuringLoad = missed;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Employee> rows = employeeRepository.streamAll()) {
+                    rows.forEach(employee -> {
+                        index(Entry.of(employee), removed);
+                        entityManager.detach(employee);
+                    });
+                }
+            });
+            missedDuringLoad = null;
+            if (!missed.isEmpty()) {
+                readOnlyTransaction.executeWithoutResult(status ->
+                        employeeRepository.findAllById(missed).forEach(employee -> {
+                            index(Entry.of(employee), removed);
+                            entityManager.detach(employee);
+                        }));
+            }
+            log.info("Indexed {} employees for search", employees.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not build the employee search index, search results will be incomplete", e);
+        } finally {
+            removedDuringLoad = null;
+            missedDuringLoad = null;
+            ReadYourWrites.clear();
+        }
+    }
+
+    // changes made inside a transaction are applied after commit, so a rolled-back batch never becomes searchable
+    public void put(Employee employee) {
+        Entry entry = Entry.of(employee);
+        AfterCommit.run(() -> index(entry, Set.of()));
+    }
+
+    // for targeted UPDATEs that never load the entity: re-index our copy with the change applied
+    public void update(long id, Consumer<Employee> change) {
+        AfterCommit.run(() -> {
+            Entry current = employees.get(id);
+            if (current != null) {
+                Employee copy = copyOf(current.employee());
+                change.accept(copy);
+                index(Entry.of(copy), Set.of());
+            } else {
+                Set<Long> missed = missedDuringLoad;
+                if (missed != null) {
+                    missed.add(id);
+                }
+            }
+        });
+    }
+
+    public void remove(long id) {
+        AfterCommit.run(() -> unindex(id));
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        AfterCommit.run(() -> ids.forEach(this::unindex));
+    }
+
+    // keep a detached copy so later changes to the caller's instance can't corrupt the index
+    private static Employee copyOf(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(employee.getVersion())
+                .build();
+    }
+
+    // the tombstone check runs inside compute, so it cannot interleave with unindex for the same id
+    private void index(Entry entry, Set<Long> removed) {
+        employees.compute(entry.employee().getId(), (id, previous) -> {
+            if (removed.contains(id)
+                    || (previous != null && previous.employee().getVersion() > entry.employee().getVersion())) {
+                return previous;
+            }
+            if (previous != null) {
+                previous.tokens().forEach(token -> removePosting(token, id));
+            }
+            entry.tokens().forEach(token -> addPosting(token, id));
+            return entry;
+        });
+    }
+
+    private void unindex(long id) {
+        Set<Long> removed = removedDuringLoad;
+        if (removed != null) {
+            removed.add(id);
+        }
+        employees.computeIfPresent(id, (key, previous) -> {
+            previous.tokens().forEach(token -> removePosting(token, key));
+            return null;
+        });
+    }
+
+    // every whitespace-separated term must prefix-match a token of the employee; best matches first
+    public List<Employee> search(String query, int limit) {
+        String[] terms = normalize(query).split("\\s+");
+        String seed = terms[0];
+        for (String term : terms) {
+            if (term.length() > seed.length()) {
+                seed = term;
+            }
+        }
+        if (seed.isEmpty()) {
+            return List.of();
+        }
+
+        // the cap counts employees that match every term, so a common seed cannot crowd out the real matches
+        List<Scored> scored = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        NavigableMap<String, Set<Long>> range = tokens.subMap(seed, true, seed + Character.MAX_VALUE, false);
+        scan:
+        for (Set<Long> ids : range.values()) {
+            for (Long id : ids) {
+                Entry entry = seen.add(id) ? employees.get(id) : null;
+                if (entry == null) {
+                    continue;
+                }
+                int score = score(entry, terms);
+                if (score > 0) {
+                    scored.add(new Scored(entry.employee(), score));
+                    if (scored.size() >= MAX_CANDIDATES) {
+                        break scan;
+                    }
+                }
+            }
+        }
+        return scored.stream()
+                .sorted(Comparator.comparingInt(Scored::score).reversed()
+                        .thenComparingLong(s -> s.employee().getId()))
+                .limit(Math.max(1, Math.min(limit, MAX_RESULTS)))
+                .map(Scored::employee)
+                .toList();
+    }
+
+    public int size() {
+        return employees.size();
+    }
+
+    // exact token beats prefix, and a name hit beats an email hit; 0 if any term matches nothing
+    private static int score(Entry entry, String[] terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = Math.max(fieldScore(entry.firstName(), term, 3),
+                    Math.max(fieldScore(entry.lastName(), term, 3), fieldScore(entry.email(), term, 2)));
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int fieldScore(List<String> fieldTokens, String term, int weight) {
+        int best = 0;
+        for (String token : fieldTokens) {
+            if (token.equals(term)) {
+                return weight * 2;
+            }
+            if (token.startsWith(term)) {
+                best = weight;
+            }
+        }
+        return best;
+    }
+
+    // names split on whitespace; emails are indexed whole and by the parts of the local name
+    private static List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        String normalized = normalize(value);
+        List<String> result = new ArrayList<>();
+        int at = normalized.indexOf('@');
+        if (at >= 0) {
+            result.add(normalized);
+            for (String part : normalized.substring(0, at).split("[^\\p{Alnum}]+")) {
+                if (!part.isEmpty()) {
+                    result.add(part);
+                }
+            }
+        } else {
+            for (String part : normalized.split("\\s+")) {
+                if (!part.isEmpty()) {
+                    result.add(part);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // both postings helpers mutate inside compute so an add can't race with removal of an emptied set
+    private void addPosting(String token, long id) {
+        tokens.compute(token, (key, ids) -> {
+            Set<Long> postings = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            postings.add(id);
+            return postings;
+        });
+    }
+
+    private void removePosting(String token, long id) {
+        tokens.computeIfPresent(token, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    // a detached copy of the employee with its tokens per field, computed once so scoring never re-tokenizes
+    private record Entry(Employee employee, List<String> firstName, List<String> lastName, List<String> email) {
+
+        static Entry of(Employee employee) {
+            Employee copy = copyOf(employee);
+            return new Entry(copy, tokenize(copy.getFirstName()), tokenize(copy.getLastName()),
+                    tokenize(copy.getEmail()));
+        }
+
+        Set<String> tokens() {
+            Set<String> all = new LinkedHashSet<>(firstName);
+            all.addAll(lastName);
+            all.addAll(email);
+            return all;
+        }
+    }
+
+    private record Scored(Employee employee, int score) {
+    }
+}
@@ -0,0 +1,239 @@
+package dev.thesarfo.springtesting.ingest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.thesarfo.springtesting.datasource.ReadYourWrites;
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.EmployeeValidation;
+import dev.thesarfo.springtesting.model.ImportJobStatus;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Bulk CSV import (header row with firstName,lastName,email; other columns are ignored). The file is read
+// row by row and handed to EmployeeService.saveEmployees chunkSize rows at a time, so each chunk is one
+// batched transaction with its emails checked against the table in one IN query. Memory stays at one chunk
+// however large the upload, and a failed chunk leaves every earlier chunk committed. Rows are validated before
+// they join a chunk, and a chunk that still breaks a constraint is retried row by row, so a bad row is reported
+// on its own; only an unreadable file or an unavailable database fails the job.
+@Component
+public class EmployeeCsvImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeCsvImporter.class);
+
+    static final int MAX_REPORTED_FAILURES = 100;
+
+    private final EmployeeService employeeService;
+    private final AsyncTaskExecutor taskExecutor;
+    private final Cache<UUID, Job> jobs;
+    private final int chunkSize;
+    private final ObjectReader rowReader;
+
+    public EmployeeCsvImporter(EmployeeService employeeService,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                               AsyncTaskExecutor taskExecutor,
+                               @Value("${employees.import.chunk-size:500}") int chunkSize,
+                               @Value("${employees.ingest.status-ttl:1h}") Duration statusTtl) {
+        this.employeeService = employeeService;
+        this.taskExecutor = taskExecutor;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .build();
+        this.chunkSize = chunkSize;
+        this.rowReader = CsvMapper.builder()
+                .enable(CsvParser.Feature.TRIM_SPACES, CsvParser.Feature.EMPTY_STRING_AS_NULL,
+                        CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build()
+                .readerFor(CsvRow.class)
+                .with(CsvSchema.emptySchema().withHeader());
+    }
+
+    // takes ownership of the file and deletes it once the job is done
+    public ImportJobStatus submit(Path csv) {
+        Job job = new Job(UUID.randomUUID());
+        jobs.put(job.id, job);
+        taskExecutor.execute(() -> {
+            try {
+                run(job, csv);
+            } finally {
+                // pooled thread: the next task must not inherit this job's read-your-writes marker
+                ReadYourWrites.clear();
+                try {
+                    Files.deleteIfExists(csv);
+                } catch (IOException e) {
+                    log.warn("Could not delete import file {}", csv, e);
+                }
+            }
+        });
+        return job.snapshot();
+    }
+
+    public Optional<ImportJobStatus> status(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(Job::snapshot);
+    }
+
+    void run(Job job, Path csv) {
+        List<Employee> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkRows = new ArrayList<>(chunkSize);
+        int row = 0;
+        try (InputStream in = Files.newInputStream(csv);
+             MappingIterator<CsvRow> rows = rowReader.readValues(in)) {
+            while (rows.hasNextValue()) {
+                row++;
+                try {
+                    Employee employee = rows.nextValue().toEmployee();
+                    String problem = EmployeeValidation.problem(employee);
+                    if (problem != null) {
+                        job.reject(BatchSaveResult.rejected(row, employee.getEmail(), BatchSaveResult.Status.INVALID,
+                                problem));
+                        job.rowsProcessed++;
+                    } else {
+                        chunk.add(employee);
+                        chunkRows.add(row);
+                    }
+                } catch (JsonMappingException e) {
+                    job.reject(BatchSaveResult.rejected(row, null, BatchSaveResult.Status.INVALID,
+                            e.getOriginalMessage()));
+                    job.rowsProcessed++;
+                }
+                if (chunk.size() == chunkSize) {
+                    flush(job, chunk, chunkRows);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flush(job, chunk, chunkRows);
+            }
+            job.finish(ImportJobStatus.State.COMPLETED, null);
+        } catch (IOException e) {
+            log.warn("Employee import {} stopped at row {}", job.id, row, e);
+            job.finish(ImportJobStatus.State.FAILED, "Stopped at row " + row + ": the file could not be read");
+        } catch (RuntimeException e) {
+            // the status is public; the cause (SQL, constraint names, ...) stays in the log
+            log.warn("Employee import {} stopped at row {}", job.id, row, e);
+            job.finish(ImportJobStatus.State.FAILED, "Stopped at row " + row + ": the rows could not be saved");
+        }
+    }
+
+    // chunkRows maps each chunk position back to its row in the file
+    private void flush(Job job, List<Employee> chunk, List<Integer> chunkRows) {
+        try {
+            record(job, employeeService.saveEmployees(chunk), chunkRows);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Employee import {} hit a constraint in a chunk of {} rows; saving them one by one",
+                    job.id, chunk.size(), e);
+            for (int i = 0; i < chunk.size(); i++) {
+                saveAlone(job, chunk.get(i), chunkRows.get(i));
+            }
+        }
+        job.rowsProcessed += chunk.size();
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private void saveAlone(Job job, Employee employee, int row) {
+        try {
+            record(job, employeeService.saveEmployees(List.of(employee)), List.of(row));
+        } catch (DataIntegrityViolationException e) {
+            // the status is public; the constraint name stays in the log
+            log.warn("Employee import {} could not save row {}", job.id, row, e);
+            job.reject(BatchSaveResult.rejected(row, employee.getEmail(), BatchSaveResult.Status.INVALID,
+                    "Rejected by a database constraint"));
+        }
+    }
+
+    private static void record(Job job, List<BatchSaveResult> results, List<Integer> chunkRows) {
+        for (BatchSaveResult result : results) {
+            if (result.status() == BatchSaveResult.Status.CREATED) {
+                job.created++;
+            } else {
+                job.reject(new BatchSaveResult(chunkRows.get(result.row()), result.email(), result.status(),
+                        null, result.message()));
+            }
+        }
+    }
+
+    record CsvRow(String firstName, String lastName, String email) {
+
+        Employee toEmployee() {
+            return Employee.builder()
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(email)
+                    .build();
+        }
+    }
+
+    // counters are written only by the import thread; volatile is enough for status readers
+    static final class Job {
+
+        private final UUID id;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final List<BatchSaveResult> failures = new ArrayList<>();
+
+        private volatile ImportJobStatus.State state = ImportJobStatus.State.RUNNING;
+        private volatile int rowsProcessed;
+        private volatile int created;
+        private volatile int rejected;
+        private volatile long finishedNanos;
+        private volatile Instant finishedAt;
+        private volatile String message;
+
+        Job(UUID id) {
+            this.id = id;
+        }
+
+        void reject(BatchSaveResult failure) {
+            rejected++;
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                synchronized (failures) {
+                    failures.add(failure);
+                }
+            }
+        }
+
+        void finish(ImportJobStatus.State state, String message) {
+            this.finishedNanos = System.nanoTime();
+            this.finishedAt = Instant.now();
+            this.message = message;
+            this.state = state;
+        }
+
+        ImportJobStatus snapshot() {
+            long end = finishedAt == null ? System.nanoTime() : finishedNanos;
+            double seconds = Math.max(end - startNanos, 1) / 1e9;
+            List<BatchSaveResult> reported;
+            synchronized (failures) {
+                reported = List.copyOf(failures);
+            }
+            return new ImportJobStatus(id, state, rowsProcessed, created, rejected, rowsProcessed / seconds,
+                    startedAt, finishedAt, message, reported);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package dev.thesarfo.springtesting.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.thesarfo.springtesting.datasource.ReadYourWrites;
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.IngestionStatus;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind buffer for bursty creates. Requests only enqueue; a single writer thread drains up to
+// batchSize employees at a time and saves them through EmployeeService.saveEmployees, one batched
+// transaction per drain. A full queue is refused rather than blocking the caller.
+@Component
+public class EmployeeIngestionQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeIngestionQueue.class);
+
+    private final EmployeeService employeeService;
+    private final BlockingQueue<Task> queue;
+    private final Cache<UUID, IngestionStatus> statuses;
+    private final int batchSize;
+    private final Duration pollTimeout;
+    private final DistributionSummary batchSizes;
+    private final Timer flushLatency;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public EmployeeIngestionQueue(EmployeeService employeeService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${employees.ingest.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${employees.ingest.batch-size:500}") int batchSize,
+                                  @Value("${employees.ingest.poll-timeout:50ms}") Duration pollTimeout,
+                                  @Value("${employees.ingest.status-ttl:1h}") Duration statusTtl) {
+        this.employeeService = employeeService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .build();
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+
+        Gauge.builder("employees.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Employees accepted but not yet written")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("employees.ingest.batch.size")
+                .description("Employees written per flush")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("employees.ingest.flush")
+                .description("Time to write one batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // empty when the queue is full and the caller should back off
+    public Optional<UUID> offer(Employee employee) {
+        UUID trackingId = UUID.randomUUID();
+        statuses.put(trackingId, IngestionStatus.queued(trackingId));
+        if (!queue.offer(new Task(trackingId, employee))) {
+            statuses.invalidate(trackingId);
+            return Optional.empty();
+        }
+        return Optional.of(trackingId);
+    }
+
+    public Optional<IngestionStatus> status(UUID trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("employee-ingest-writer").daemon(true).start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(Duration.ofSeconds(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // stop after the web server has stopped taking requests, so everything accepted still gets written
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Task> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Task first = queue.poll(pollTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+                // this thread lives as long as the app; don't let one write pin its reads to the primary
+                ReadYourWrites.clear();
+            }
+        }
+    }
+
+    void flush(List<Task> batch) {
+        batchSizes.record(batch.size());
+        flushLatency.record(() -> {
+            if (batch.size() == 1) {
+                writeAlone(batch.get(0));
+                return;
+            }
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                // one bad row must not fail the rows drained with it: write them one at a time so only that
+                // row ends up FAILED
+                log.warn("Failed to write a batch of {} queued employees; retrying them one by one", batch.size(), e);
+                batch.forEach(this::writeAlone);
+            }
+        });
+    }
+
+    private void write(List<Task> tasks) {
+        List<BatchSaveResult> results = employeeService.saveEmployees(tasks.stream().map(Task::employee).toList());
+        for (int i = 0; i < tasks.size(); i++) {
+            UUID trackingId = tasks.get(i).trackingId();
+            statuses.put(trackingId, IngestionStatus.of(trackingId, results.get(i)));
+        }
+    }
+
+    private void writeAlone(Task task) {
+        try {
+            write(List.of(task));
+        } catch (RuntimeException e) {
+            // the status is public; the cause stays in the log
+            log.warn("Failed to write queued employee {}", task.trackingId(), e);
+            statuses.put(task.trackingId(),
+                    IngestionStatus.failed(task.trackingId(), "The employee could not be saved"));
+        }
+    }
+
+    record Task(UUID trackingId, Employee employee) {
+    }
+}
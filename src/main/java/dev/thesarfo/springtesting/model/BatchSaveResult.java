@@ -0,0 +1,19 @@
+package dev.thesarfo.springtesting.model;
+
+// outcome of one row of a bulk create; row is the index of the employee in the request body
+public record BatchSaveResult(int row, String email, Status status, Long id, String message) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    public static BatchSaveResult created(int row, Employee employee) {
+        return new BatchSaveResult(row, employee.getEmail(), Status.CREATED, employee.getId(), null);
+    }
+
+    public static BatchSaveResult rejected(int row, String email, Status status, String message) {
+        return new BatchSaveResult(row, email, status, null, message);
+    }
+}
@@ -0,0 +1,8 @@
+package dev.thesarfo.springtesting.model;
+
+import java.util.List;
+import java.util.Map;
+
+// body of DELETE /api/employees: either ids, or a filter of field -> value that rows must all equal
+public record BulkDeleteRequest(List<Long> ids, Map<String, String> filter) {
+}
@@ -0,0 +1,5 @@
+package dev.thesarfo.springtesting.model;
+
+// rows actually removed; ids that did not exist are not counted
+public record BulkDeleteResult(int deleted) {
+}
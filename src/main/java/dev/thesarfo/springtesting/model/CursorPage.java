@@ -0,0 +1,12 @@
+package dev.thesarfo.springtesting.model;
+
+import java.util.List;
+
+// one page of a keyset scan; nextCursor is the id to pass as "after" for the next page, null on the last page.
+// version is the employee list version read in the same transaction as the page, when the source has one
+public record CursorPage<T>(List<T> items, Long nextCursor, String version) {
+
+    public CursorPage(List<T> items, Long nextCursor) {
+        this(items, nextCursor, null);
+    }
+}
@@ -0,0 +1,55 @@
+package dev.thesarfo.springtesting.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// columns a client can ask for with ?fields=; attribute is the Employee property and the JSON key
+public enum EmployeeField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email");
+
+    private final String attribute;
+
+    EmployeeField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    // filter values arrive as JSON strings; id is compared as a number, so anything else is a client error
+    public Object parseValue(String value) {
+        if (this != ID) {
+            return value;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(attribute + " must be a number");
+        }
+    }
+
+    public static Set<EmployeeField> parse(String fields) {
+        Set<EmployeeField> parsed = EnumSet.noneOf(EmployeeField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(fromAttribute(trimmed));
+        }
+        return parsed;
+    }
+
+    public static EmployeeField fromAttribute(String attribute) {
+        for (EmployeeField field : values()) {
+            if (field.attribute.equals(attribute)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown employee field " + attribute);
+    }
+}
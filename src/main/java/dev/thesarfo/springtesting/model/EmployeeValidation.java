@@ -0,0 +1,36 @@
+package dev.thesarfo.springtesting.model;
+
+import java.util.regex.Pattern;
+
+// Row checks for bulk creates, run before anything is written so a bad row is reported on its own instead of
+// failing the INSERT of every row batched with it
+public final class EmployeeValidation {
+
+    // first_name, last_name and email are VARCHAR(255) in V1__create_employees
+    public static final int MAX_LENGTH = 255;
+
+    // deliberately loose: one @, no whitespace, a dot in the domain. Deliverability is not checked
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    private EmployeeValidation() {
+    }
+
+    // null when the employee can be inserted
+    public static String problem(Employee employee) {
+        if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName())) {
+            return "firstName and lastName are required";
+        }
+        if (employee.getFirstName().length() > MAX_LENGTH || employee.getLastName().length() > MAX_LENGTH) {
+            return "firstName and lastName must be at most " + MAX_LENGTH + " characters";
+        }
+        String email = employee.getEmail();
+        if (email != null && (email.length() > MAX_LENGTH || !EMAIL.matcher(email).matches())) {
+            return "email must be a valid address of at most " + MAX_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
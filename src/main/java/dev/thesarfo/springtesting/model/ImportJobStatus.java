@@ -0,0 +1,25 @@
+package dev.thesarfo.springtesting.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// progress of a CSV upload to POST /api/employees/import. failures holds the first rejected rows
+// (row is the 1-based data row in the file, header excluded); rejected counts all of them
+public record ImportJobStatus(UUID jobId,
+                              State state,
+                              int rowsProcessed,
+                              int created,
+                              int rejected,
+                              double rowsPerSecond,
+                              Instant startedAt,
+                              Instant finishedAt,
+                              String message,
+                              List<BatchSaveResult> failures) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
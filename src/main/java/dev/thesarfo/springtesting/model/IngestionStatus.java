@@ -0,0 +1,28 @@
+package dev.thesarfo.springtesting.model;
+
+import java.util.UUID;
+
+// where an employee accepted by POST /api/employees/async has got to
+public record IngestionStatus(UUID trackingId, State state, Long employeeId, String message) {
+
+    public enum State {
+        QUEUED,
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    public static IngestionStatus queued(UUID trackingId) {
+        return new IngestionStatus(trackingId, State.QUEUED, null, null);
+    }
+
+    public static IngestionStatus of(UUID trackingId, BatchSaveResult result) {
+        return result.status() == BatchSaveResult.Status.CREATED
+                ? new IngestionStatus(trackingId, State.CREATED, result.id(), null)
+                : new IngestionStatus(trackingId, State.REJECTED, null, result.message());
+    }
+
+    public static IngestionStatus failed(UUID trackingId, String message) {
+        return new IngestionStatus(trackingId, State.FAILED, null, message);
+    }
+}
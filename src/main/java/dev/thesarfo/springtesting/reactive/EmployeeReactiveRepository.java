@@ -0,0 +1,68 @@
+package dev.thesarfo.springtesting.reactive;
+
+import dev.thesarfo.springtesting.model.Employee;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of EmployeeRepository for the "reactive" profile. Written against DatabaseClient
+// rather than as a Spring Data R2DBC interface so it cannot be picked up by the JPA repository scan.
+@Repository
+@Profile("reactive")
+public class EmployeeReactiveRepository {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String SELECT = "SELECT id, first_name, last_name, email, version FROM employees";
+
+    private final DatabaseClient databaseClient;
+
+    public EmployeeReactiveRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    public Mono<Employee> findById(long id) {
+        return databaseClient.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toEmployee(row))
+                .one();
+    }
+
+    public Mono<Employee> findByEmail(String email) {
+        return databaseClient.sql(SELECT + " WHERE email = :email")
+                .bind("email", email)
+                .map((row, metadata) -> toEmployee(row))
+                .one();
+    }
+
+    // same lookup as findByJPQL / findByNativeSQL
+    public Mono<Employee> findByFirstNameAndLastName(String firstName, String lastName) {
+        return databaseClient.sql(SELECT + " WHERE first_name = :firstName AND last_name = :lastName")
+                .bind("firstName", firstName)
+                .bind("lastName", lastName)
+                .map((row, metadata) -> toEmployee(row))
+                .one();
+    }
+
+    // rows are pulled from the driver as the subscriber requests them, never collected into a list
+    public Flux<Employee> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY id")
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map((row, metadata) -> toEmployee(row))
+                .all();
+    }
+
+    private static Employee toEmployee(Row row) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
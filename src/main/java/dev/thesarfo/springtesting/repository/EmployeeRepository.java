@@ -1,23 +1,71 @@
 package dev.thesarfo.springtesting.repository;
 
 import dev.thesarfo.springtesting.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+    String EXPORT_FETCH_SIZE = "1000";
+
+    // name and email lookups go through the Hibernate query cache; results are invalidated whenever
+    // anything writes to the employees table
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Employee> findByEmail(String email);
 
+    // duplicate check for a whole chunk of a bulk insert in one round trip
+    @Query("select e.email from Employee e where e.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // keyset pagination: seek past the last seen id instead of an OFFSET scan
+    List<Employee> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    // full-table scan for exports; must be consumed inside a transaction and closed by the caller
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAll();
+
+    // single-column scan used to warm in-memory indexes at startup
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select e.email from Employee e where e.email is not null")
+    Stream<String> streamAllEmails();
+
+    // one DELETE statement for the whole id list, where deleteById would load and remove each entity in turn.
+    // Hibernate evicts the employees cache region and cached query results for it after a bulk delete
+    @Modifying
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
     // define custom query with JPQL with index params
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByJPQL(String firstName, String lastName);
 
     // define custom query using JPQL with named params
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select e from Employee e where e.firstName =:firstName and e.lastName =:lastName")
     Employee findByJPQLNamedParams(@Param("firstName")String firstName, @Param("lastName")String lastName);
 
+    // The two native lookups map their rows to Employee, so Hibernate records the employees table as their
+    // query space and they would be invalidated correctly if marked cacheable. They are left uncached: they
+    // exist to exercise native SQL, and the JPQL variants above cover the same lookup from the cache.
+    // Native *writes* are different - without a synchronized entity class Hibernate cannot tell which tables
+    // they touch and drops every cached query result.
+
     // define custom query using native sql with index params
     @Query(value = "SELECT * FROM employees e where e.first_name = ?1 and e.last_name = ?2", nativeQuery = true)
     Employee findByNativeSQL(String firstName, String lastName);
@@ -0,0 +1,25 @@
+package dev.thesarfo.springtesting.repository;
+
+import dev.thesarfo.springtesting.model.EmployeeField;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface EmployeeRepositoryCustom {
+
+    // keyset page selecting only the given columns; rows are plain maps, never managed entities
+    List<Map<String, Object>> findFieldsByIdGreaterThan(long id, int limit, Set<EmployeeField> fields);
+
+    // keyset page of the ids of employees whose columns equal the given values (null matches IS NULL)
+    List<Long> findIdsMatching(Map<EmployeeField, String> filter, long afterId, int limit);
+
+    // one UPDATE of just the given columns, guarded by and bumping the version; returns the rows updated
+    int updateFields(long id, long expectedVersion, Map<EmployeeField, String> changes);
+
+    // the ETag of the employee list. Every write bumps it as its last statement: the row lock serialises
+    // writers only from there to commit
+    long findTableVersion();
+
+    void bumpTableVersion();
+}
@@ -0,0 +1,112 @@
+package dev.thesarfo.springtesting.repository;
+
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.EmployeeField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Any subset of columns can be requested, so rather than one record projection per combination this builds
+// the closed projection as a tuple query: the SELECT list holds only the requested columns, and since no
+// entity is hydrated there is nothing for Hibernate to dirty-check.
+class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(long id, int limit, Set<EmployeeField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> employee.get(field.attribute()).alias(field.attribute()))
+                .toList();
+        query.multiselect(selections)
+                .where(cb.greaterThan(employee.<Long>get("id"), id))
+                .orderBy(cb.asc(employee.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(EmployeeRepositoryCustomImpl::toRow)
+                .toList();
+    }
+
+    @Override
+    public List<Long> findIdsMatching(Map<EmployeeField, String> filter, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Employee> employee = query.from(Employee.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(employee.<Long>get("id"), afterId));
+        filter.forEach((field, value) -> predicates.add(value == null
+                ? cb.isNull(employee.get(field.attribute()))
+                : cb.equal(employee.get(field.attribute()), field.parseValue(value))));
+        query.select(employee.<Long>get("id"))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(employee.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Bulk update rather than load-modify-flush: no SELECT, and only the sent columns appear in the SET clause.
+    @Override
+    public int updateFields(long id, long expectedVersion, Map<EmployeeField, String> changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> employee = update.from(Employee.class);
+
+        changes.forEach((field, value) -> update.set(employee.<String>get(field.attribute()),
+                value == null ? cb.nullLiteral(String.class) : cb.literal(value)));
+        update.set(employee.<Long>get("version"), cb.sum(employee.<Long>get("version"), 1L))
+                .where(cb.equal(employee.get("id"), id),
+                        cb.equal(employee.get("version"), expectedVersion));
+
+        // a bulk update: Hibernate cannot tell which rows changed, so it evicts the entire employees region and
+        // every cached query on the table. Fine while writes are rare next to reads; a native update naming a
+        // different query space would skip that, but would also leave stale results in the query cache
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public long findTableVersion() {
+        return ((Number) entityManager.createNativeQuery("SELECT version FROM employees_table_version WHERE id = 1")
+                .getSingleResult()).longValue();
+    }
+
+    // without a declared query space a native update makes Hibernate evict every second-level cache region
+    @Override
+    public void bumpTableVersion() {
+        entityManager.createNativeQuery("UPDATE employees_table_version SET version = version + 1 WHERE id = 1")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("employees_table_version")
+                .executeUpdate();
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            row.put(element.getAlias(), tuple.get(element));
+        }
+        return row;
+    }
+}
@@ -1,14 +1,34 @@
 package dev.thesarfo.springtesting.service;
 
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.CursorPage;
 import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.EmployeeField;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
+    int DEFAULT_PAGE_SIZE = 50;
+    int MAX_PAGE_SIZE = 500;
+
     Employee saveEmployee(Employee employee);
+    List<BatchSaveResult> saveEmployees(List<Employee> employees);
     List<Employee> getAllEmployees();
+    String getEmployeesVersion();
+    CursorPage<Employee> getEmployees(long afterId, int limit);
+    CursorPage<Map<String, Object>> getEmployeeFields(long afterId, int limit, Set<EmployeeField> fields);
+    void exportEmployees(Consumer<Employee> sink);
+    List<Employee> searchEmployees(String query, int limit);
     Optional<Employee> getEmployeeById(long id);
     Employee updateEmployee(Employee employee);
-    void deleteEmployee(long id);
+    OptionalLong updateEmployeeFields(long id, long expectedVersion, Map<EmployeeField, String> changes);
+    boolean deleteEmployee(long id);
+    int deleteEmployees(Collection<Long> ids);
+    int deleteEmployeesMatching(Map<EmployeeField, String> filter);
 }
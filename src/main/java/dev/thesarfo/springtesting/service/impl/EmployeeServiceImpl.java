@@ -1,50 +1,404 @@
 package dev.thesarfo.springtesting.service.impl;
 
+import dev.thesarfo.springtesting.cache.AfterCommit;
+import dev.thesarfo.springtesting.cache.EmployeeCache;
 import dev.thesarfo.springtesting.exception.ResourceNotFoundException;
+import dev.thesarfo.springtesting.index.EmailBloomFilter;
+import dev.thesarfo.springtesting.index.EmployeeSearchIndex;
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.CursorPage;
 import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.EmployeeField;
+import dev.thesarfo.springtesting.model.EmployeeValidation;
 import dev.thesarfo.springtesting.repository.EmployeeRepository;
 import dev.thesarfo.springtesting.service.EmployeeService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmployeeServiceImpl.class);
+
+    static final int BATCH_CHUNK_SIZE = 500;
+
+    static final int EXPORT_PAGE_SIZE = 1000;
+
     private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final EmailBloomFilter emailFilter;
+    private final EmployeeCache employeeCache;
+    private final EmployeeSearchIndex searchIndex;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate primaryTransaction;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EntityManager entityManager,
+                               EmailBloomFilter emailFilter, EmployeeCache employeeCache,
+                               EmployeeSearchIndex searchIndex, PlatformTransactionManager transactionManager) {
         this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.emailFilter = emailFilter;
+        this.employeeCache = employeeCache;
+        this.searchIndex = searchIndex;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee with email " + employee.getEmail() + " already exists");
+        // only pay for the SELECT when the filter says the email may already be taken
+        if (emailFilter.mightContain(employee.getEmail())) {
+            Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
+            if(savedEmployee.isPresent()){
+                throw new ResourceNotFoundException("Employee with email " + employee.getEmail() + " already exists");
+            }
+            emailFilter.recordFalsePositive();
+        }
+        try {
+            // flushed here so a duplicate the filter missed surfaces inside this try, not at commit
+            Employee saved = employeeRepository.saveAndFlush(employee);
+            emailFilter.put(saved.getEmail());
+            // the id may have been looked up (and cached as not found) before it existed; evict again after
+            // commit, as a lookup before then would still not find it
+            employeeCache.invalidate(saved.getId());
+            AfterCommit.run(() -> employeeCache.invalidate(saved.getId()));
+            searchIndex.put(saved);
+            employeeRepository.bumpTableVersion();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // the unique index caught a duplicate the filter missed (a concurrent insert)
+            throw new ResourceNotFoundException("Employee with email " + employee.getEmail() + " already exists", e);
         }
-        return employeeRepository.save(employee);
     }
 
+    // each chunk commits in a transaction of its own, so rows are reported per row and a failing chunk leaves
+    // the earlier ones in place
     @Override
+    public List<BatchSaveResult> saveEmployees(List<Employee> employees) {
+        List<BatchSaveResult> results = new ArrayList<>(Collections.nCopies(employees.size(), null));
+        Set<String> seenEmails = new HashSet<>();
+        for (int from = 0; from < employees.size(); from += BATCH_CHUNK_SIZE) {
+            int first = from;
+            List<Employee> chunk = employees.subList(from, Math.min(from + BATCH_CHUNK_SIZE, employees.size()));
+            Map<Integer, Employee> accepted = new LinkedHashMap<>();
+            try {
+                chunkTransaction.executeWithoutResult(status -> {
+                    accept(chunk, first, seenEmails, accepted, results);
+                    insert(List.copyOf(accepted.values()));
+                });
+            } catch (DataIntegrityViolationException e) {
+                // a row the checks above cannot see coming, typically the same email inserted concurrently, rolled
+                // back the whole chunk; retry its rows one at a time so only that row is reported
+                log.warn("Batch insert of {} employees hit a constraint; retrying them one by one", accepted.size(), e);
+                accepted.entrySet().removeIf(entry -> !insertAlone(entry.getKey(), entry.getValue(), results));
+            }
+            accepted.forEach((row, employee) -> {
+                emailFilter.put(employee.getEmail());
+                employeeCache.invalidate(employee.getId());
+                searchIndex.put(employee);
+                results.set(row, BatchSaveResult.created(row, employee));
+            });
+        }
+        return results;
+    }
+
+    // fills accepted with the rows of the chunk that pass validation and the duplicate checks, and results with
+    // the rejected ones
+    private void accept(List<Employee> chunk, int from, Set<String> seenEmails, Map<Integer, Employee> accepted,
+                        List<BatchSaveResult> results) {
+        // compared in lower case, as the email column's collation and the Bloom filter do; the column
+        // still matches lower-cased values through its unique index
+        List<String> candidates = chunk.stream()
+                .map(Employee::getEmail)
+                .filter(Objects::nonNull)
+                .filter(emailFilter::mightContain)
+                .map(EmployeeServiceImpl::normalizedEmail)
+                .distinct()
+                .toList();
+        Set<String> existingEmails = candidates.isEmpty()
+                ? Set.of()
+                : employeeRepository.findExistingEmails(candidates).stream()
+                        .map(EmployeeServiceImpl::normalizedEmail)
+                        .collect(Collectors.toSet());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            int row = from + i;
+            Employee employee = chunk.get(i);
+            String email = employee.getEmail();
+            String problem = EmployeeValidation.problem(employee);
+            if (problem != null) {
+                results.set(row, BatchSaveResult.rejected(row, email, BatchSaveResult.Status.INVALID, problem));
+            } else if (email != null && (existingEmails.contains(normalizedEmail(email))
+                    || !seenEmails.add(normalizedEmail(email)))) {
+                results.set(row, BatchSaveResult.rejected(row, email, BatchSaveResult.Status.DUPLICATE,
+                        "Employee with email " + email + " already exists"));
+            } else {
+                accepted.put(row, employee);
+            }
+        }
+    }
+
+    private void insert(Collection<Employee> employees) {
+        // a rolled-back attempt leaves its ids behind; zero marks the rows as new again
+        employees.forEach(employee -> {
+            employee.setId(0);
+            employee.setVersion(0);
+        });
+        // hibernate.jdbc.batch_size groups these into batched INSERTs on flush
+        employeeRepository.saveAll(employees);
+        employeeRepository.flush();
+        employeeRepository.bumpTableVersion();
+    }
+
+    private boolean insertAlone(int row, Employee employee, List<BatchSaveResult> results) {
+        try {
+            chunkTransaction.executeWithoutResult(status -> insert(List.of(employee)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            String email = employee.getEmail();
+            boolean taken = email != null && Boolean.TRUE.equals(chunkTransaction.execute(status ->
+                    !employeeRepository.findExistingEmails(List.of(normalizedEmail(email))).isEmpty()));
+            results.set(row, taken
+                    ? BatchSaveResult.rejected(row, email, BatchSaveResult.Status.DUPLICATE,
+                            "Employee with email " + email + " already exists")
+                    : BatchSaveResult.rejected(row, email, BatchSaveResult.Status.INVALID,
+                            "Rejected by a database constraint"));
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getEmployeesVersion() {
+        return Long.toString(employeeRepository.findTableVersion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Employee> getEmployees(long afterId, int limit) {
+        int pageSize = pageSize(limit);
+        // read before the rows: a write committing in between leaves an older tag, which costs a refetch later
+        // instead of caching new rows under it. Same transaction, so the same database as the rows
+        String version = getEmployeesVersion();
+        // fetch one extra row so we know whether there is a next page without a count query
+        List<Employee> rows = employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, Employee::getId, version);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getEmployeeFields(long afterId, int limit, Set<EmployeeField> fields) {
+        int pageSize = pageSize(limit);
+        String version = getEmployeesVersion();
+        // id is always selected: it is the cursor
+        Set<EmployeeField> selected = EnumSet.of(EmployeeField.ID);
+        selected.addAll(fields);
+        List<Map<String, Object>> rows = employeeRepository.findFieldsByIdGreaterThan(afterId, pageSize + 1, selected);
+        return toPage(rows, pageSize, row -> (Long) row.get(EmployeeField.ID.attribute()), version);
+    }
+
+    private static String normalizedEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static <T> CursorPage<T> toPage(List<T> rows, int pageSize, ToLongFunction<T> id, String version) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, version);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, id.applyAsLong(page.get(pageSize - 1)), version);
+    }
+
+    // keyset pages, each read in a short transaction of its own and written once it has ended, so a slow client
+    // never holds a pooled connection. Unlike one long cursor this is not a snapshot: a row committed while the
+    // export runs is included if its id is past the page being read
+    @Override
+    public void exportEmployees(Consumer<Employee> sink) {
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Employee> page = readOnlyTransaction.execute(status -> {
+                List<Employee> rows = employeeRepository.findByIdGreaterThanOrderByIdAsc(from,
+                        Limit.of(EXPORT_PAGE_SIZE));
+                // open-in-view keeps one persistence context for the whole export; drop the rows so memory stays flat
+                rows.forEach(entityManager::detach);
+                return rows;
+            });
+            page.forEach(sink);
+            if (page.size() < EXPORT_PAGE_SIZE) {
+                return;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    @Override
+    public List<Employee> searchEmployees(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    // misses are loaded in a read-write transaction, which stays on the primary when replica routing is on:
+    // a lagging replica would otherwise put a stale row, or a "not found" for a just-created id, in the cache
     @Override
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        return employeeCache.get(id, key -> primaryTransaction.execute(status -> employeeRepository.findById(key)));
     }
 
     @Override
+    @Transactional
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        Employee saved = employeeRepository.save(updatedEmployee);
+        emailFilter.put(saved.getEmail());
+        employeeCache.invalidate(saved.getId());
+        AfterCommit.run(() -> employeeCache.invalidate(saved.getId()));
+        searchIndex.put(saved);
+        employeeRepository.bumpTableVersion();
+        return saved;
     }
 
+    // PUT and PATCH: a single UPDATE ... WHERE id = ? AND version = ?. The row is only read back when nothing
+    // matched, to tell a missing employee (empty) from a lost update (optimistic locking failure).
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    @Transactional
+    public OptionalLong updateEmployeeFields(long id, long expectedVersion, Map<EmployeeField, String> changes) {
+        if (changes.containsKey(EmployeeField.ID)) {
+            throw new IllegalArgumentException("id cannot be changed");
+        }
+        for (EmployeeField required : List.of(EmployeeField.FIRST_NAME, EmployeeField.LAST_NAME)) {
+            if (changes.containsKey(required) && changes.get(required) == null) {
+                throw new IllegalArgumentException(required.attribute() + " is required");
+            }
+        }
+
+        int updated;
+        try {
+            updated = employeeRepository.updateFields(id, expectedVersion, changes);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceNotFoundException("Employee with email " + changes.get(EmployeeField.EMAIL) + " already exists", e);
+        }
+        if (updated == 0) {
+            if (!employeeRepository.existsById(id)) {
+                return OptionalLong.empty();
+            }
+            throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+        }
+
+        long version = expectedVersion + 1;
+        String email = changes.get(EmployeeField.EMAIL);
+        if (email != null) {
+            emailFilter.put(email);
+        }
+        if (changes.containsKey(EmployeeField.EMAIL)) {
+            // the old email's bits stay set, like a deleted row's, until enough pile up to rebuild
+            emailFilter.recordDeletions(1);
+        }
+        // evict now and again after commit: a GET in between would re-cache the row as it was before this update
+        employeeCache.invalidate(id);
+        AfterCommit.run(() -> employeeCache.invalidate(id));
+        searchIndex.update(id, employee -> {
+            changes.forEach((field, value) -> {
+                switch (field) {
+                    case FIRST_NAME -> employee.setFirstName(value);
+                    case LAST_NAME -> employee.setLastName(value);
+                    case EMAIL -> employee.setEmail(value);
+                    default -> { }
+                }
+            });
+            employee.setVersion(version);
+        });
+        employeeRepository.bumpTableVersion();
+        return OptionalLong.of(version);
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteEmployee(long id) {
+        return deleteChunk(List.of(id)) > 0;
+    }
+
+    @Override
+    @Transactional
+    public int deleteEmployees(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        int deleted = 0;
+        for (int from = 0; from < distinct.size(); from += BATCH_CHUNK_SIZE) {
+            deleted += deleteChunk(distinct.subList(from, Math.min(from + BATCH_CHUNK_SIZE, distinct.size())));
+        }
+        return deleted;
+    }
+
+    // matching ids are read a chunk at a time (so we know exactly what to evict) and each chunk deleted by id
+    @Override
+    @Transactional
+    public int deleteEmployeesMatching(Map<EmployeeField, String> filter) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("A delete filter needs at least one field");
+        }
+        int deleted = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = employeeRepository.findIdsMatching(filter, afterId, BATCH_CHUNK_SIZE);
+            if (!ids.isEmpty()) {
+                deleted += deleteChunk(ids);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == BATCH_CHUNK_SIZE);
+        return deleted;
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        int deleted = employeeRepository.deleteByIds(ids);
+        if (deleted > 0) {
+            // evict now and again after commit: a read in between could re-cache a row that is about to go
+            ids.forEach(employeeCache::invalidate);
+            AfterCommit.run(() -> ids.forEach(employeeCache::invalidate));
+            searchIndex.removeAll(ids);
+            emailFilter.recordDeletions(deleted);
+            employeeRepository.bumpTableVersion();
+        }
+        return deleted;
     }
 //    @Override
 //    public Employee getEmployeeById(long id) {
@@ -0,0 +1,10 @@
+CREATE TABLE employees (
+    id         BIGINT       NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+-- increment must match the allocationSize of the employees_seq generator on Employee
+CREATE SEQUENCE employees_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,3 @@
+ALTER TABLE employees ADD CONSTRAINT uk_employees_email UNIQUE (email);
+
+CREATE INDEX idx_employees_name ON employees (first_name, last_name);
@@ -0,0 +1,24 @@
+-- Also runs against databases that predate Flyway, whose employees table Hibernate's ddl-auto=update created
+-- (AUTO_INCREMENT ids, no sequence table). They are baselined at version 0 so this still applies, and every
+-- statement here tolerates what is already there
+CREATE TABLE IF NOT EXISTS employees (
+    id         BIGINT       NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    email      VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- MySQL has no sequences; Hibernate emulates employees_seq with a single-row table
+CREATE TABLE IF NOT EXISTS employees_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+-- The pooled optimizer hands out the block (next_val - 49 .. next_val), 50 being the allocationSize of the
+-- employees_seq generator on Employee, so next_val has to sit a full block past the highest existing id
+INSERT INTO employees_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM employees
+WHERE NOT EXISTS (SELECT 1 FROM employees_seq);
+
+UPDATE employees_seq
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM employees));
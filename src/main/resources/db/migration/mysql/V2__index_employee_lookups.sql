@@ -0,0 +1,5 @@
+-- findByEmail runs on every saveEmployee; the unique index also backs the duplicate-email check
+ALTER TABLE employees ADD CONSTRAINT uk_employees_email UNIQUE (email);
+
+-- findByJPQL / findByNativeSQL and friends filter on first_name = ? and last_name = ?
+CREATE INDEX idx_employees_name ON employees (first_name, last_name);
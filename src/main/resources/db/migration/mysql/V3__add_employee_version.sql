@@ -0,0 +1,2 @@
+-- optimistic-locking version on Employee; also served as the ETag of GET /api/employees/{id}
+ALTER TABLE employees ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
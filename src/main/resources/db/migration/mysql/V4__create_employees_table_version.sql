@@ -0,0 +1,9 @@
+-- validator for GET /api/employees: bumped by every write in the writing transaction, so every instance and
+-- every replica serves the tag that matches the rows it can see
+CREATE TABLE employees_table_version (
+    id      INT    NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO employees_table_version (id, version) VALUES (1, 0);
@@ -0,0 +1,48 @@
+package dev.thesarfo.springtesting;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gives every test context its own JCache cache manager for the second-level cache. The provider is a JVM-wide
+// singleton handing out one manager per URI, so contexts left on the default URI would serve each other's rows
+// from the employees region, and Hibernate closes the manager when any one of them shuts down. Registered for
+// all tests in META-INF/spring.factories; contexts started by hand call useOwnCacheManager as an initializer.
+class OwnCacheManagerContextCustomizerFactory implements ContextCustomizerFactory {
+
+    private static final AtomicInteger CONTEXTS = new AtomicInteger();
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                     List<ContextConfigurationAttributes> configAttributes) {
+        return new OwnCacheManager();
+    }
+
+    // the URI only names the manager; Caffeine still configures its regions from application.conf
+    static void useOwnCacheManager(ConfigurableApplicationContext context) {
+        URI uri = URI.create("test-context-" + CONTEXTS.incrementAndGet());
+        context.getBeanFactory().registerSingleton("ownCacheManagerCustomizer", (HibernatePropertiesCustomizer)
+                properties -> properties.put(ConfigSettings.CACHE_MANAGER, Caching
+                        .getCachingProvider(CaffeineCachingProvider.class.getName())
+                        .getCacheManager(uri, context.getClassLoader())));
+    }
+
+    // no state, so it leaves the context cache key alone: contexts that were shared still are
+    record OwnCacheManager() implements ContextCustomizer {
+
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+            useOwnCacheManager(context);
+        }
+    }
+}
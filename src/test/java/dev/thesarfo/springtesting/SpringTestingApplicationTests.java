@@ -1,10 +1,11 @@
 package dev.thesarfo.springtesting;
 
+import dev.thesarfo.springtesting.integration.AbstractionBaseTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
 @SpringBootTest
-class SpringTestingApplicationTests {
+class SpringTestingApplicationTests extends AbstractionBaseTest {
 
     @Test
     void contextLoads() {
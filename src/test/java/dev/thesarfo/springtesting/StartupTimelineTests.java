@@ -0,0 +1,98 @@
+package dev.thesarfo.springtesting;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Boots the real application in the fastboot profile on H2 and checks the recorded startup timeline. The test
+// phase boots it JIT; ./mvnw -Pfastboot verify boots it again with spring.aot.enabled=true against the
+// process-aot output. Each budget is the slowest refresh measured with this class run on its own in a cold JVM
+// on one CPU plus about 10%: JIT 16.3s to 21.6s, AOT 14.5s to 17.9s. Pass -Dstartup.max-refresh=PT5S or similar
+// on hardware with more cores.
+class StartupTimelineTests {
+
+    private static final Duration MAX_REFRESH = Duration.parse(System.getProperty("startup.max-refresh",
+            AotDetector.useGeneratedArtifacts() ? "PT20S" : "PT24S"));
+
+    @DisplayName("Fast boot records startup steps, stays within the refresh budget and serves /actuator/startup on the management port only")
+    @Test
+    void givenFastBootProfile_whenApplicationStarts_thenStartupStepsAreRecordedAndExposed() throws Exception {
+
+        // given - precondition or setup
+        SpringApplication application = SpringTestingApplication.application();
+        BufferingApplicationStartup startup = (BufferingApplicationStartup) application.getApplicationStartup();
+        // closing this context closes its cache manager, so it must not be the one other test classes use
+        application.addInitializers(OwnCacheManagerContextCustomizerFactory::useOwnCacheManager);
+
+        // when - action or the behaviour that we are going test
+        try (ConfigurableApplicationContext context = application.run(
+                "--spring.profiles.active=fastboot,embedded",
+                "--server.port=0",
+                "--management.server.port=0",
+                // own database, as other test classes may share the JVM
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")) {
+
+            // then - verify the output
+            List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+            assertThat(events)
+                    .extracting(event -> event.getStartupStep().getName())
+                    .contains("spring.context.refresh", "spring.beans.instantiate");
+            // process-aot scans for repositories at build time, so only a JIT boot records the step
+            if (!AotDetector.useGeneratedArtifacts()) {
+                assertThat(events)
+                        .extracting(event -> event.getStartupStep().getName())
+                        .contains("spring.data.repository.scanning");
+            }
+
+            StartupTimeline.TimelineEvent refresh = events.stream()
+                    .filter(event -> event.getStartupStep().getName().equals("spring.context.refresh"))
+                    .findFirst()
+                    .orElseThrow();
+            List<String> slowest = events.stream()
+                    .filter(event -> event.getStartupStep().getName().equals("spring.beans.instantiate"))
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(10)
+                    .map(event -> event.getDuration().toMillis() + "ms " + beanName(event))
+                    .toList();
+            assertThat(refresh.getDuration())
+                    .as("context refresh; slowest beans: %s", slowest)
+                    .isLessThanOrEqualTo(MAX_REFRESH);
+
+            HttpResponse<String> management = getStartup(context.getEnvironment().getProperty("local.management.port"));
+            assertThat(management.statusCode()).isEqualTo(200);
+            assertThat(management.body()).contains("spring.context.refresh");
+            assertThat(getStartup(context.getEnvironment().getProperty("local.server.port")).statusCode())
+                    .isEqualTo(404);
+        }
+    }
+
+    private static HttpResponse<String> getStartup(String port) throws Exception {
+        return HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/startup")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String beanName(StartupTimeline.TimelineEvent event) {
+        for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
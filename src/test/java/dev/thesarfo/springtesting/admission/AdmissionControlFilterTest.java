@@ -0,0 +1,146 @@
+package dev.thesarfo.springtesting.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @DisplayName("A client over its rate gets 429 with Retry-After and the rejection is counted")
+    @Test
+    void givenClientOverRate_whenRequest_thenTooManyRequests() throws Exception {
+        // given - precondition or setup
+        AdmissionControlFilter filter = filter(1, 1);
+        filter.doFilter(request("GET", "/api/employees/1", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // when - action or behaviour to be tested
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("GET", "/api/employees/1", "10.0.0.1"), response, chain);
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.counter("employees.admission.rejected", "endpoint", "point", "reason", "rate_limited")
+                .count()).isEqualTo(1);
+    }
+
+    @DisplayName("A client-supplied id header does not buy a fresh bucket")
+    @Test
+    void givenClientOverRate_whenRotatingIdHeader_thenStillTooManyRequests() throws Exception {
+        // given - precondition or setup
+        AdmissionControlFilter filter = filter(1, 1);
+        filter.doFilter(request("GET", "/api/employees/1", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // when - action or behaviour to be tested
+        MockHttpServletRequest rotated = request("GET", "/api/employees/1", "10.0.0.1");
+        rotated.addHeader("X-Client-Id", "someone-else");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(rotated, response, new MockFilterChain());
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    @DisplayName("Authenticated users behind one address each get their own bucket")
+    @Test
+    void givenTwoUsersOnOneAddress_whenRequest_thenLimitedSeparately() throws Exception {
+        // given - precondition or setup
+        AdmissionControlFilter filter = filter(1, 1);
+        MockHttpServletRequest alice = request("GET", "/api/employees/1", "10.0.0.1");
+        alice.setUserPrincipal(() -> "alice");
+        filter.doFilter(alice, new MockHttpServletResponse(), new MockFilterChain());
+
+        // when - action or behaviour to be tested
+        MockHttpServletRequest bob = request("GET", "/api/employees/1", "10.0.0.1");
+        bob.setUserPrincipal(() -> "bob");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(bob, response, new MockFilterChain());
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @DisplayName("A request finding its endpoint class at the concurrency limit gets 503 after the queue timeout")
+    @Test
+    void givenListSlotsTaken_whenAnotherListRequest_thenServiceUnavailable() throws Exception {
+        // given - precondition or setup
+        AdmissionControlFilter filter = filter(1000, 1000);
+        MockHttpServletResponse nested = new MockHttpServletResponse();
+        MockHttpServletResponse pointResponse = new MockHttpServletResponse();
+        // the first list request holds the only list slot while the others arrive
+        FilterChain holdingSlot = (req, res) -> {
+            filter.doFilter(request("GET", "/api/employees", "10.0.0.2"), nested, new MockFilterChain());
+            filter.doFilter(request("GET", "/api/employees/7", "10.0.0.2"), pointResponse, new MockFilterChain());
+        };
+
+        // when - action or behaviour to be tested
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/employees", "10.0.0.1"), first, holdingSlot);
+
+        // then - verify the output
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(nested.getStatus()).isEqualTo(503);
+        assertThat(nested.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(pointResponse.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("employees.admission.rejected", "endpoint", "list", "reason", "overloaded")
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("employees.admission.queue").tag("endpoint", "list").timer().count())
+                .isEqualTo(2);
+    }
+
+    @DisplayName("The slot is released once the request completes")
+    @Test
+    void givenCompletedListRequest_whenNextListRequest_thenAdmitted() throws Exception {
+        // given - precondition or setup
+        AdmissionControlFilter filter = filter(1000, 1000);
+        filter.doFilter(request("GET", "/api/employees", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // when - action or behaviour to be tested
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("GET", "/api/employees", "10.0.0.1"), response, chain);
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(meterRegistry.get("employees.admission.in-flight").tag("endpoint", "list").gauge().value())
+                .isZero();
+    }
+
+    @DisplayName("Requests are classed as list, point lookup or write")
+    @Test
+    void givenRequests_whenClassified_thenMatchEndpointClass() {
+        // then - verify the output
+        assertThat(EndpointClass.of(request("GET", "/api/employees", "c"))).isEqualTo(EndpointClass.LIST);
+        assertThat(EndpointClass.of(request("GET", "/api/employees/search", "c"))).isEqualTo(EndpointClass.LIST);
+        assertThat(EndpointClass.of(request("GET", "/api/employees/42", "c"))).isEqualTo(EndpointClass.POINT);
+        assertThat(EndpointClass.of(request("POST", "/api/employees", "c"))).isEqualTo(EndpointClass.WRITE);
+        assertThat(EndpointClass.of(request("DELETE", "/api/employees/42", "c"))).isEqualTo(EndpointClass.WRITE);
+    }
+
+    private AdmissionControlFilter filter(double ratePerSecond, int burst) {
+        AdmissionControlProperties properties = new AdmissionControlProperties(ratePerSecond, burst,
+                1000, Duration.ofMillis(20), new AdmissionControlProperties.Concurrency(1, 1, 1));
+        return new AdmissionControlFilter(properties,
+                new ClientRateLimiter(ratePerSecond, burst, 1000), meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
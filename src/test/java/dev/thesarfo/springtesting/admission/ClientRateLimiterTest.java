@@ -0,0 +1,64 @@
+package dev.thesarfo.springtesting.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    // 10 per second, i.e. a token every 100ms, and bursts of up to 3
+    private final ClientRateLimiter rateLimiter = new ClientRateLimiter(10, 3, 1000, now::get);
+
+    @DisplayName("A client can burst up to the bucket size and is then told how long to wait")
+    @Test
+    void givenFullBucket_whenBurstExceeded_thenRejectedWithWaitUntilNextToken(){
+        // when - action or behaviour to be tested
+        long first = rateLimiter.tryAcquire("a");
+        long second = rateLimiter.tryAcquire("a");
+        long third = rateLimiter.tryAcquire("a");
+        long fourth = rateLimiter.tryAcquire("a");
+
+        // then - verify the output
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isZero();
+        assertThat(fourth).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @DisplayName("Tokens refill at the configured rate")
+    @Test
+    void givenEmptyBucket_whenIntervalPasses_thenOneMoreRequestAdmitted(){
+        // given - precondition or setup
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("a");
+        }
+
+        // when - action or behaviour to be tested
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // then - verify the output
+        assertThat(rateLimiter.tryAcquire("a")).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isPositive();
+    }
+
+    @DisplayName("Each client has its own bucket")
+    @Test
+    void givenOneClientExhausted_whenAnotherClientCalls_thenAdmitted(){
+        // given - precondition or setup
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.tryAcquire("a");
+        }
+
+        // when - action or behaviour to be tested
+        long wait = rateLimiter.tryAcquire("b");
+
+        // then - verify the output
+        assertThat(wait).isZero();
+        assertThat(rateLimiter.tryAcquire("a")).isPositive();
+    }
+}
@@ -1,7 +1,14 @@
 package dev.thesarfo.springtesting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dev.thesarfo.springtesting.ingest.EmployeeCsvImporter;
+import dev.thesarfo.springtesting.ingest.EmployeeIngestionQueue;
+import dev.thesarfo.springtesting.model.CursorPage;
 import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.EmployeeField;
+import dev.thesarfo.springtesting.model.ImportJobStatus;
 import dev.thesarfo.springtesting.service.EmployeeService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,18 +16,47 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest
@@ -32,6 +68,12 @@ class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeIngestionQueue ingestionQueue;
+
+    @MockBean
+    private EmployeeCsvImporter csvImporter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -65,6 +107,63 @@ class EmployeeControllerTests {
     }
 
 
+    @DisplayName("Create Employee asynchronously")
+    @Test
+    void givenQueueWithRoom_whenCreateEmployeeAsync_thenReturnAcceptedWithTrackingId() throws Exception {
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("travis").lastName("scott").email("travis@gmail.com").build();
+        UUID trackingId = UUID.randomUUID();
+        given(ingestionQueue.offer(any(Employee.class))).willReturn(Optional.of(trackingId));
+
+        // when - action or bhvr that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result or output using assert statements
+        response.andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.trackingId", is(trackingId.toString())))
+                .andExpect(jsonPath("$.state", is("QUEUED")))
+                .andExpect(header().string("Location", "http://localhost/api/employees/async/" + trackingId));
+    }
+
+    @DisplayName("Create Employee asynchronously with a full queue")
+    @Test
+    void givenFullQueue_whenCreateEmployeeAsync_thenReturnTooManyRequests() throws Exception {
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("travis").lastName("scott").email("travis@gmail.com").build();
+        given(ingestionQueue.offer(any(Employee.class))).willReturn(Optional.empty());
+
+        // when - action or bhvr that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result or output using assert statements
+        response.andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @DisplayName("Import Employees from a CSV upload")
+    @Test
+    void givenCsvUpload_whenImportEmployees_thenReturnAcceptedJob() throws Exception {
+        // given - precondition or setup
+        UUID jobId = UUID.randomUUID();
+        given(csvImporter.submit(any(Path.class))).willReturn(new ImportJobStatus(jobId, ImportJobStatus.State.RUNNING,
+                0, 0, 0, 0, Instant.now(), null, null, List.of()));
+        MockMultipartFile file = new MockMultipartFile("file", "employees.csv", "text/csv",
+                "firstName,lastName,email\nernest,sarfo,sarfo@gmail.com\n".getBytes());
+
+        // when - action or bhvr that we are going to test
+        ResultActions response = mockMvc.perform(multipart("/api/employees/import").file(file));
+
+        // then - verify the result or output using assert statements
+        response.andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId", is(jobId.toString())))
+                .andExpect(jsonPath("$.state", is("RUNNING")))
+                .andExpect(header().string("Location", "http://localhost/api/employees/import/" + jobId));
+    }
+
     @DisplayName("Get All Employees Controller")
     @Test
     void givenListOfEmployees_whenGetAllEmployees_thenReturnAllEmployees() throws Exception{
@@ -72,15 +171,362 @@ class EmployeeControllerTests {
         List<Employee> listOfEmployeees = new ArrayList<>();
         listOfEmployeees.add(Employee.builder().firstName("ernest").lastName("sarfo").email("sarfo@gmail.com").build());
         listOfEmployeees.add(Employee.builder().firstName("tony").lastName("stark").email("tonystark@gmail.com").build());
-        given(employeeService.getAllEmployees()).willReturn(listOfEmployeees);
+        given(employeeService.getEmployees(anyLong(), anyInt())).willReturn(new CursorPage<>(listOfEmployeees, null));
 
         // when - action or behaviour to be tested
         ResultActions response = mockMvc.perform(get("/api/employees"));
 
         // then - verify the output
         response.andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()", is(listOfEmployeees.size())));
+                .andExpect(jsonPath("$.size()", is(listOfEmployeees.size())))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
     }
 
-}
+    @DisplayName("Get All Employees as CBOR")
+    @Test
+    void givenCborAccept_whenGetAllEmployees_thenReturnCborPayload() throws Exception{
+        // given - precondition or setup
+        List<Employee> listOfEmployeees = List.of(
+                Employee.builder().id(1L).firstName("ernest").lastName("sarfo").email("sarfo@gmail.com").build(),
+                Employee.builder().id(2L).firstName("tony").lastName("stark").email("tonystark@gmail.com").build());
+        given(employeeService.getEmployees(anyLong(), anyInt())).willReturn(new CursorPage<>(listOfEmployeees, null));
+
+        // when - action or behaviour to be tested
+        MvcResult result = mockMvc.perform(get("/api/employees").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // then - verify the output
+        Employee[] decoded = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), Employee[].class);
+        assertThat(decoded).extracting(Employee::getEmail).containsExactly("sarfo@gmail.com", "tonystark@gmail.com");
+    }
+
+    @DisplayName("Create Employee from a Smile body")
+    @Test
+    void givenSmileBody_whenCreateEmployee_thenReturnSavedEmployee() throws Exception{
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("travis").lastName("scott").email("travis@gmail.com").build();
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType("application/x-jackson-smile")
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new SmileMapper().writeValueAsBytes(employee)));
+
+        // then - verify the output
+        response.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email", is("travis@gmail.com")));
+    }
 
+    @DisplayName("Get Employees page returns next cursor")
+    @Test
+    void givenMoreEmployeesThanLimit_whenGetAllEmployees_thenReturnNextCursor() throws Exception{
+        // given - precondition or setup
+        List<Employee> page = List.of(
+                Employee.builder().id(11L).firstName("ernest").lastName("sarfo").email("sarfo@gmail.com").build(),
+                Employee.builder().id(12L).firstName("tony").lastName("stark").email("tonystark@gmail.com").build());
+        given(employeeService.getEmployees(eq(10L), eq(2))).willReturn(new CursorPage<>(page, 12L));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("after", "10")
+                .param("limit", "2"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(header().string("X-Next-Cursor", "12"));
+    }
+
+    @DisplayName("Get Employees with sparse fieldset")
+    @Test
+    void givenFieldsParam_whenGetAllEmployees_thenReturnOnlyRequestedFields() throws Exception{
+        // given - precondition or setup
+        List<Map<String, Object>> rows = List.of(
+                Map.of("id", 1L, "email", "sarfo@gmail.com"),
+                Map.of("id", 2L, "email", "tonystark@gmail.com"));
+        given(employeeService.getEmployeeFields(eq(0L), eq(50), eq(EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL))))
+                .willReturn(new CursorPage<>(rows, null));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "id,email"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].email", is("sarfo@gmail.com")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+    }
+
+    @DisplayName("Get Employees with unknown field")
+    @Test
+    void givenUnknownField_whenGetAllEmployees_thenReturnBadRequest() throws Exception{
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "salary"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Get Employee by id returns version ETag")
+    @Test
+    void givenEmployee_whenGetEmployeeById_thenReturnVersionETag() throws Exception{
+        // given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("ernest").lastName("sarfo").email("sarfo@gmail.com")
+                .version(3L).build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", 1L));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andExpect(jsonPath("$.email", is("sarfo@gmail.com")));
+    }
+
+    @DisplayName("Get Employee by id with matching If-None-Match")
+    @Test
+    void givenMatchingETag_whenGetEmployeeById_thenReturnNotModified() throws Exception{
+        // given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("ernest").lastName("sarfo").email("sarfo@gmail.com")
+                .version(3L).build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", 1L).header("If-None-Match", "\"3\""));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @DisplayName("Get Employees with matching If-None-Match skips the query")
+    @Test
+    void givenMatchingETag_whenGetAllEmployees_thenReturnNotModifiedWithoutQuery() throws Exception{
+        // given - precondition or setup
+        given(employeeService.getEmployeesVersion()).willReturn("abc-7");
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees").header("If-None-Match", "\"abc-7\""));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc-7\""));
+        verify(employeeService, never()).getEmployees(anyLong(), anyInt());
+    }
+
+    @DisplayName("Get Employees tags the page with the version read alongside it")
+    @Test
+    void givenPageWithVersion_whenGetAllEmployees_thenETagIsPageVersion() throws Exception{
+        // given - precondition or setup
+        given(employeeService.getEmployeesVersion()).willReturn("7");
+        given(employeeService.getEmployees(anyLong(), anyInt()))
+                .willReturn(new CursorPage<>(List.of(Employee.builder().id(1L).firstName("ernest").build()), null, "8"));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees").header("If-None-Match", "\"6\""));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"8\""));
+    }
+
+    @DisplayName("Patch Employee with If-Match")
+    @Test
+    void givenIfMatch_whenPatchEmployee_thenUpdateSentFieldsAndReturnNewETag() throws Exception{
+        // given - precondition or setup
+        given(employeeService.updateEmployeeFields(1L, 3L, Map.of(EmployeeField.EMAIL, "new@gmail.com")))
+                .willReturn(OptionalLong.of(4L));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType("application/merge-patch+json")
+                .header("If-Match", "\"3\"")
+                .content("{\"email\":\"new@gmail.com\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "W/\"4\""));
+    }
+
+    @DisplayName("Patch Employee with a stale version")
+    @Test
+    void givenStaleVersion_whenPatchEmployee_thenReturnPreconditionFailed() throws Exception{
+        // given - precondition or setup
+        given(employeeService.updateEmployeeFields(eq(1L), eq(2L), any()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"travis\",\"version\":2}"));
+
+        // then - verify the output
+        response.andExpect(status().isPreconditionFailed());
+    }
+
+    @DisplayName("Patch Employee without a version")
+    @Test
+    void givenNoVersion_whenPatchEmployee_thenReturnPreconditionRequired() throws Exception{
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"travis\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isPreconditionRequired());
+        verify(employeeService, never()).updateEmployeeFields(anyLong(), anyLong(), any());
+    }
+
+    @DisplayName("Put Employee replaces every field")
+    @Test
+    void givenFullBody_whenPutEmployee_thenUnsentFieldsAreCleared() throws Exception{
+        // given - precondition or setup
+        Map<EmployeeField, String> changes = new EnumMap<>(EmployeeField.class);
+        changes.put(EmployeeField.FIRST_NAME, "travis");
+        changes.put(EmployeeField.LAST_NAME, "scott");
+        changes.put(EmployeeField.EMAIL, null);
+        given(employeeService.updateEmployeeFields(1L, 0L, changes)).willReturn(OptionalLong.of(1L));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":1,\"firstName\":\"travis\",\"lastName\":\"scott\",\"version\":0}"));
+
+        // then - verify the output
+        response.andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "W/\"1\""));
+    }
+
+    @DisplayName("Delete Employee")
+    @Test
+    void givenEmployeeId_whenDeleteEmployee_thenReturnNoContent() throws Exception{
+        // given - precondition or setup
+        given(employeeService.deleteEmployee(1L)).willReturn(true);
+        given(employeeService.deleteEmployee(2L)).willReturn(false);
+
+        // when - action or behaviour to be tested
+        ResultActions deleted = mockMvc.perform(delete("/api/employees/{id}", 1L));
+        ResultActions missing = mockMvc.perform(delete("/api/employees/{id}", 2L));
+
+        // then - verify the output
+        deleted.andExpect(status().isNoContent());
+        missing.andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Bulk delete Employees by ids")
+    @Test
+    void givenIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception{
+        // given - precondition or setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2);
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(delete("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,2,3]}"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    @DisplayName("Bulk delete Employees by filter")
+    @Test
+    void givenFilter_whenDeleteEmployees_thenReturnDeletedCount() throws Exception{
+        // given - precondition or setup
+        given(employeeService.deleteEmployeesMatching(Map.of(EmployeeField.LAST_NAME, "stark"))).willReturn(5);
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(delete("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"lastName\":\"stark\"}}"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(5)));
+    }
+
+    @DisplayName("Bulk delete Employees with both ids and filter")
+    @Test
+    void givenIdsAndFilter_whenDeleteEmployees_thenReturnBadRequest() throws Exception{
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(delete("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1],\"filter\":{\"lastName\":\"stark\"}}"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Bulk delete Employees with an unknown or badly typed filter field")
+    @Test
+    void givenInvalidFilter_whenDeleteEmployees_thenReturnBadRequest() throws Exception{
+        // when - action or behaviour to be tested
+        ResultActions nonNumericId = mockMvc.perform(delete("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"id\":\"abc\"}}"));
+        ResultActions nullId = mockMvc.perform(delete("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"id\":null}}"));
+        ResultActions unknownField = mockMvc.perform(delete("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"salary\":\"100\"}}"));
+
+        // then - verify the output
+        nonNumericId.andExpect(status().isBadRequest());
+        nullId.andExpect(status().isBadRequest());
+        unknownField.andExpect(status().isBadRequest());
+        verify(employeeService, never()).deleteEmployeesMatching(any());
+    }
+
+    @DisplayName("Search Employees by prefix")
+    @Test
+    void givenMatchingEmployees_whenSearchEmployees_thenReturnRankedMatches() throws Exception{
+        // given - precondition or setup
+        List<Employee> matches = List.of(
+                Employee.builder().id(2L).firstName("tony").lastName("stark").email("tonystark@gmail.com").build());
+        given(employeeService.searchEmployees("ton", 5)).willReturn(matches);
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("q", "ton")
+                .param("limit", "5"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].lastName", is("stark")));
+    }
+
+    @DisplayName("Export Employees as NDJSON")
+    @Test
+    void givenEmployees_whenExportEmployees_thenStreamOneJsonObjectPerLine() throws Exception{
+        // given - precondition or setup
+        Employee employee1 = Employee.builder().id(1L).firstName("ernest").lastName("sarfo").email("sarfo@gmail.com").build();
+        Employee employee2 = Employee.builder().id(2L).firstName("tony").lastName("stark").email("tonystark@gmail.com").build();
+        willAnswer(invocation -> {
+            Consumer<Employee> sink = invocation.getArgument(0);
+            sink.accept(employee1);
+            sink.accept(employee2);
+            return null;
+        }).given(employeeService).exportEmployees(any());
+
+        // when - action or behaviour to be tested
+        MvcResult result = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(employee1) + "\n" + objectMapper.writeValueAsString(employee2) + "\n"));
+    }
+
+}
@@ -0,0 +1,73 @@
+package dev.thesarfo.springtesting.controller;
+
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.reactive.EmployeeReactiveRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.BDDMockito.given;
+
+@WebFluxTest(controllers = ReactiveEmployeeController.class)
+class ReactiveEmployeeControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private EmployeeReactiveRepository employeeRepository;
+
+    @DisplayName("Reactive Get All Employees streams every row")
+    @Test
+    void givenEmployees_whenGetAllEmployees_thenStreamAllEmployees(){
+        // given - precondition or setup
+        given(employeeRepository.findAll()).willReturn(Flux.just(
+                Employee.builder().id(1L).firstName("ernest").lastName("sarfo").email("sarfo@gmail.com").build(),
+                Employee.builder().id(2L).firstName("tony").lastName("stark").email("tonystark@gmail.com").build()));
+
+        // when - action or behaviour to be tested
+        // then - verify the output
+        webTestClient.get().uri("/api/employees")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(2)
+                .jsonPath("$[1].email").isEqualTo("tonystark@gmail.com");
+    }
+
+    @DisplayName("Reactive Get Employee By Id")
+    @Test
+    void givenEmployeeId_whenGetEmployeeById_thenReturnEmployee(){
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Mono.just(
+                Employee.builder().id(1L).firstName("ernest").lastName("sarfo").email("sarfo@gmail.com").build()));
+
+        // when - action or behaviour to be tested
+        // then - verify the output
+        webTestClient.get().uri("/api/employees/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("ernest");
+    }
+
+    @DisplayName("Reactive Get Employee By Id (negative scenario)")
+    @Test
+    void givenUnknownEmployeeId_whenGetEmployeeById_thenReturnNotFound(){
+        // given - precondition or setup
+        given(employeeRepository.findById(99L)).willReturn(Mono.empty());
+
+        // when - action or behaviour to be tested
+        // then - verify the output
+        webTestClient.get().uri("/api/employees/{id}", 99L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
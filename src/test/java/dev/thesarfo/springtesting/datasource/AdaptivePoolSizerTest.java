@@ -0,0 +1,132 @@
+package dev.thesarfo.springtesting.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Synthetic load: virtual-thread clients borrow a connection, "run a query" by sleeping, and hand it back.
+// The sizer is stepped by hand instead of on its schedule.
+class AdaptivePoolSizerTest {
+
+    private static final int CLIENTS = 40;
+    private static final Duration TICK = Duration.ofMillis(150);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicBoolean stop = new AtomicBoolean();
+    private HikariDataSource dataSource;
+    private ExecutorService clients;
+
+    @AfterEach
+    void tearDown() {
+        stop.set(true);
+        if (clients != null) {
+            clients.close();
+        }
+        dataSource.close();
+    }
+
+    @DisplayName("Pool grows to max-size while clients queue and query latency holds steady")
+    @Test
+    void givenClientsWaitingAndSteadyLatency_whenTicking_thenPoolGrowsToMaxSize() throws InterruptedException {
+        // given - precondition or setup
+        dataSource = pool(4);
+        AdaptivePoolSizer sizer = sizer(4, 16);
+        load(active -> 5);
+
+        // when - action or behaviour to be tested
+        tick(sizer, 15);
+
+        // then - verify the output
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(16);
+        assertThat(meterRegistry.counter("employees.datasource.pool.resizes", "pool", "sizer", "direction", "grow")
+                .count()).isPositive();
+    }
+
+    @DisplayName("Pool stops growing once query latency climbs with concurrency")
+    @Test
+    void givenLatencyRisingWithConnections_whenTicking_thenPoolStaysWellBelowMaxSize() throws InterruptedException {
+        // given - precondition or setup
+        dataSource = pool(4);
+        AdaptivePoolSizer sizer = sizer(4, 16);
+        // a database that is already saturated: every extra connection makes each query slower
+        load(active -> 2 * active);
+
+        // when - action or behaviour to be tested
+        tick(sizer, 15);
+
+        // then - verify the output
+        // where exactly it settles depends on scheduling noise (the baseline also drifts up 2% a tick), but it
+        // must have backed off at least once and stayed well clear of max-size
+        assertThat(dataSource.getMaximumPoolSize()).isBetween(4, 12);
+        assertThat(meterRegistry.counter("employees.datasource.pool.resizes", "pool", "sizer", "direction", "shrink")
+                .count()).isPositive();
+    }
+
+    @DisplayName("Idle pool shrinks back to min-size")
+    @Test
+    void givenNoLoad_whenTicking_thenPoolShrinksToMinSize() throws InterruptedException {
+        // given - precondition or setup
+        dataSource = pool(8);
+        AdaptivePoolSizer sizer = sizer(2, 16);
+
+        // when - action or behaviour to be tested
+        tick(sizer, 10);
+
+        // then - verify the output
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(2);
+    }
+
+    private HikariDataSource pool(int size) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:pool-sizer;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPoolName("sizer");
+        config.setMaximumPoolSize(size);
+        config.setMinimumIdle(1);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+    private AdaptivePoolSizer sizer(int minSize, int maxSize) {
+        return new AdaptivePoolSizer(dataSource, meterRegistry, minSize, maxSize, TICK, Duration.ofMillis(1), 1.5);
+    }
+
+    private void load(IntUnaryOperator queryMillis) {
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                while (!stop.get()) {
+                    try (Connection ignored = dataSource.getConnection()) {
+                        Thread.sleep(queryMillis.applyAsInt(dataSource.getHikariPoolMXBean().getActiveConnections()));
+                    } catch (SQLException e) {
+                        // timed out waiting for a connection; try again
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+    }
+
+    private static void tick(AdaptivePoolSizer sizer, int times) throws InterruptedException {
+        for (int i = 0; i < times; i++) {
+            Thread.sleep(TICK.toMillis());
+            sizer.tick();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package dev.thesarfo.springtesting.datasource;
+
+import dev.thesarfo.springtesting.model.CursorPage;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// two in-process H2 databases stand in for a MySQL primary and its replica; they are not replicated, which
+// makes it visible which one served each read
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTests.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "employees.datasource.routing.enabled=true",
+        "employees.datasource.replicas[0].url=" + ReplicaRoutingTests.REPLICA_URL,
+        "employees.datasource.replicas[0].username=sa",
+        "employees.datasource.replicas[0].password="
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // a real replica gets its schema through replication; here it has to be migrated by hand
+    @BeforeAll
+    static void migrateReplica(){
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @AfterEach
+    void clearReadYourWrites(){
+        ReadYourWrites.clear();
+    }
+
+    @DisplayName("Read-only service methods are served by the replica")
+    @Test
+    void givenEmployeeOnlyOnPrimary_whenGetEmployees_thenReadFromReplica(){
+        // given - precondition or setup
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("primary")
+                .lastName("only")
+                .email("primary-only@gmail.com")
+                .build());
+        ReadYourWrites.clear();
+        new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).update(
+                "INSERT INTO employees (id, first_name, last_name, email) VALUES (?, ?, ?, ?)",
+                1_000_000L, "replica", "only", "replica-only@gmail.com");
+
+        // when - action or behaviour to be tested
+        CursorPage<Employee> page = employeeService.getEmployees(0, 100);
+
+        // then - verify the output
+        assertThat(page.items()).extracting(Employee::getEmail)
+                .contains("replica-only@gmail.com")
+                .doesNotContain("primary-only@gmail.com");
+    }
+
+    @DisplayName("Reads after a write on the same thread go to the primary")
+    @Test
+    void givenWriteOnThisThread_whenGetEmployees_thenReadFromPrimary(){
+        // given - precondition or setup
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("read")
+                .lastName("own")
+                .email("read-own-write@gmail.com")
+                .build());
+
+        // when - action or behaviour to be tested
+        CursorPage<Employee> page = employeeService.getEmployees(0, 100);
+
+        // then - verify the output
+        assertThat(page.items()).extracting(Employee::getEmail).contains("read-own-write@gmail.com");
+    }
+
+    @DisplayName("The request after a write carries the marker and reads the primary")
+    @Test
+    void givenCookieFromWrite_whenNextRequestReads_thenReadFromPrimary() throws Exception {
+        // given - precondition or setup
+        Cookie written = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName": "follow", "lastName": "up", "email": "follow-up@gmail.com"}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(written).isNotNull();
+
+        // when - action or behaviour to be tested
+        ResultActions withCookie = mockMvc.perform(get("/api/employees").param("limit", "100").cookie(written));
+        ResultActions withoutCookie = mockMvc.perform(get("/api/employees").param("limit", "100"));
+
+        // then - verify the output
+        withCookie.andExpect(jsonPath("$[*].email", hasItem("follow-up@gmail.com")));
+        withoutCookie.andExpect(jsonPath("$[*].email", not(hasItem("follow-up@gmail.com"))));
+    }
+
+    @DisplayName("A marker older than the window no longer pins reads to the primary")
+    @Test
+    void givenExpiredCookie_whenGetEmployees_thenReadFromReplica() throws Exception {
+        // given - precondition or setup
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("expired")
+                .lastName("marker")
+                .email("expired-marker@gmail.com")
+                .build());
+        ReadYourWrites.clear();
+        Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE,
+                Long.toString(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis()));
+
+        // when - action or behaviour to be tested
+        ResultActions response = mockMvc.perform(get("/api/employees").param("limit", "100").cookie(expired));
+
+        // then - verify the output
+        response.andExpect(jsonPath("$[*].email", not(hasItem("expired-marker@gmail.com"))));
+    }
+
+    @DisplayName("A cache miss is loaded from the primary, never cached from a lagging replica")
+    @Test
+    void givenEmployeeNotYetOnReplica_whenGetEmployeeById_thenFoundAndCached(){
+        // given - precondition or setup
+        Employee saved = employeeService.saveEmployee(Employee.builder()
+                .firstName("not")
+                .lastName("replicated")
+                .email("not-replicated@gmail.com")
+                .build());
+        ReadYourWrites.clear();
+
+        // when - action or behaviour to be tested
+        Optional<Employee> first = employeeService.getEmployeeById(saved.getId());
+        Optional<Employee> second = employeeService.getEmployeeById(saved.getId());
+
+        // then - verify the output
+        assertThat(first).get().extracting(Employee::getEmail).isEqualTo("not-replicated@gmail.com");
+        assertThat(second).get().extracting(Employee::getEmail).isEqualTo("not-replicated@gmail.com");
+    }
+}
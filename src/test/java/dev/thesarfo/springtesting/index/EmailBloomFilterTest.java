@@ -0,0 +1,82 @@
+package dev.thesarfo.springtesting.index;
+
+import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBloomFilterTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailBloomFilter emailFilter;
+
+    @BeforeEach
+    public void setup(){
+        emailFilter = new EmailBloomFilter(employeeRepository, transactionManager, new SimpleMeterRegistry(), 1000, 0.01);
+    }
+
+    @DisplayName("Unit test for filter before it is loaded")
+    @Test
+    void givenFilterNotLoaded_whenMightContain_thenReturnTrue(){
+        // when - action or behaviour to be tested
+        boolean mightContain = emailFilter.mightContain("unknown@gmail.com");
+
+        // then - verify the output
+        assertThat(mightContain).isTrue();
+    }
+
+    @DisplayName("Unit test for filter loaded from the email column")
+    @Test
+    void givenLoadedFilter_whenMightContain_thenNoFalseNegatives(){
+        // given - precondition or setup
+        given(employeeRepository.streamAllEmails()).willReturn(Stream.of("sarfo@gmail.com", "stark@gmail.com"));
+        emailFilter.load();
+        emailFilter.put("travis@gmail.com");
+
+        // when - action or behaviour to be tested
+        // then - verify the output
+        assertThat(emailFilter.mightContain("sarfo@gmail.com")).isTrue();
+        assertThat(emailFilter.mightContain("STARK@gmail.com")).isTrue();
+        assertThat(emailFilter.mightContain("travis@gmail.com")).isTrue();
+        assertThat(emailFilter.mightContain(null)).isFalse();
+    }
+
+    @DisplayName("Unit test for filter false-positive rate")
+    @Test
+    void givenFilterAtCapacity_whenMightContainUnknownEmails_thenFalsePositiveRateIsNearTarget(){
+        // given - precondition or setup
+        given(employeeRepository.streamAllEmails()).willReturn(Stream.empty());
+        emailFilter.load();
+        for (int i = 0; i < 1000; i++) {
+            emailFilter.put("employee" + i + "@gmail.com");
+        }
+
+        // when - action or behaviour to be tested
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (emailFilter.mightContain("stranger" + i + "@gmail.com")) {
+                falsePositives++;
+            }
+        }
+
+        // then - verify the output
+        assertThat(falsePositives / 10_000.0).isLessThan(0.03);
+        assertThat(emailFilter.expectedFalsePositiveRate()).isLessThan(0.03);
+    }
+}
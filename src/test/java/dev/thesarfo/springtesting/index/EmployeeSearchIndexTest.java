@@ -0,0 +1,177 @@
+package dev.thesarfo.springtesting.index;
+
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSearchIndexTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup(){
+        searchIndex = new EmployeeSearchIndex(employeeRepository, entityManager, transactionManager);
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String email) {
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).build();
+    }
+
+    @DisplayName("Unit test for search over the loaded index")
+    @Test
+    void givenLoadedIndex_whenSearchByPrefix_thenReturnMatchesOnAnyField(){
+        // given - precondition or setup
+        given(employeeRepository.streamAll()).willReturn(Stream.of(
+                employee(1L, "Ernest", "Sarfo", "sarfo@gmail.com"),
+                employee(2L, "Tony", "Stark", "tonystark@gmail.com"),
+                employee(3L, "Travis", "Scott", "travis.scott@gmail.com")));
+        searchIndex.load();
+
+        // when - action or behaviour to be tested
+        List<Employee> byName = searchIndex.search("ERN", 10);
+        List<Employee> byLastName = searchIndex.search("st", 10);
+        List<Employee> byEmailPart = searchIndex.search("scott", 10);
+
+        // then - verify the output
+        assertThat(byName).extracting(Employee::getId).containsExactly(1L);
+        assertThat(byLastName).extracting(Employee::getId).containsExactly(2L);
+        assertThat(byEmailPart).extracting(Employee::getId).containsExactly(3L);
+        assertThat(searchIndex.search("   ", 10)).isEmpty();
+    }
+
+    @DisplayName("Unit test for search ranking")
+    @Test
+    void givenExactAndPrefixMatches_whenSearch_thenExactNameMatchRanksFirst(){
+        // given - precondition or setup
+        searchIndex.put(employee(1L, "Samantha", "Jones", "sam.jones@gmail.com"));
+        searchIndex.put(employee(2L, "Sam", "Smith", "smith@gmail.com"));
+        searchIndex.put(employee(3L, "Ann", "Lee", "samlee@gmail.com"));
+
+        // when - action or behaviour to be tested
+        List<Employee> results = searchIndex.search("sam", 10);
+
+        // then - verify the output
+        assertThat(results).extracting(Employee::getId).containsExactly(2L, 1L, 3L);
+    }
+
+    @DisplayName("Unit test for multi-term search")
+    @Test
+    void givenTwoTerms_whenSearch_thenEveryTermMustMatch(){
+        // given - precondition or setup
+        searchIndex.put(employee(1L, "Tony", "Stark", "tony@gmail.com"));
+        searchIndex.put(employee(2L, "Tony", "Scott", "tscott@gmail.com"));
+
+        // when - action or behaviour to be tested
+        List<Employee> results = searchIndex.search("tony sta", 10);
+
+        // then - verify the output
+        assertThat(results).extracting(Employee::getId).containsExactly(1L);
+    }
+
+    @DisplayName("Unit test for incremental updates")
+    @Test
+    void givenUpdatedAndRemovedEmployees_whenSearch_thenIndexReflectsChanges(){
+        // given - precondition or setup
+        searchIndex.put(employee(1L, "Ernest", "Sarfo", "sarfo@gmail.com"));
+        searchIndex.put(employee(2L, "Tony", "Stark", "tonystark@gmail.com"));
+
+        // when - action or behaviour to be tested
+        searchIndex.put(employee(1L, "Travis", "Scott", "travis@gmail.com"));
+        searchIndex.remove(2L);
+
+        // then - verify the output
+        assertThat(searchIndex.search("ernest", 10)).isEmpty();
+        assertThat(searchIndex.search("travis", 10)).extracting(Employee::getId).containsExactly(1L);
+        assertThat(searchIndex.search("tony", 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(1);
+    }
+
+    @DisplayName("Unit test for bounded search results")
+    @Test
+    void givenManyMatches_whenSearch_thenResultsAreCapped(){
+        // given - precondition or setup
+        IntStream.rangeClosed(1, 200).forEach(i ->
+                searchIndex.put(employee(i, "Alex" + i, "Doe", "alex" + i + "@gmail.com")));
+
+        // when - action or behaviour to be tested
+        List<Employee> results = searchIndex.search("alex", 1000);
+
+        // then - verify the output
+        assertThat(results).hasSize(EmployeeSearchIndex.MAX_RESULTS);
+    }
+
+    @DisplayName("Unit test for a load that reads rows older than the index")
+    @Test
+    void givenNewerEntryIndexed_whenLoadReadsOlderRow_thenKeepNewerEntry(){
+        // given - precondition or setup
+        Employee renamed = employee(1L, "Travis", "Scott", "travis@gmail.com");
+        renamed.setVersion(2);
+        searchIndex.put(renamed);
+        given(employeeRepository.streamAll()).willReturn(Stream.of(employee(1L, "Ernest", "Sarfo", "sarfo@gmail.com")));
+
+        // when - action or behaviour to be tested
+        searchIndex.load();
+
+        // then - verify the output
+        assertThat(searchIndex.search("travis", 10)).extracting(Employee::getId).containsExactly(1L);
+        assertThat(searchIndex.search("ernest", 10)).isEmpty();
+    }
+
+    @DisplayName("Unit test for a deletion committed while the index loads")
+    @Test
+    void givenEmployeeDeletedDuringLoad_whenLoadReadsIt_thenItStaysOutOfTheIndex(){
+        // given - precondition or setup
+        Employee deleted = employee(2L, "Tony", "Stark", "tonystark@gmail.com");
+        // the delete commits after the scan has started but before it reaches the row
+        given(employeeRepository.streamAll()).willReturn(Stream.concat(
+                Stream.of(employee(1L, "Ernest", "Sarfo", "sarfo@gmail.com")),
+                Stream.of(deleted).peek(row -> searchIndex.remove(row.getId()))));
+
+        // when - action or behaviour to be tested
+        searchIndex.load();
+
+        // then - verify the output
+        assertThat(searchIndex.search("tony", 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(1);
+    }
+
+    @DisplayName("Unit test for the candidate cap applying to full matches only")
+    @Test
+    void givenMoreSeedMatchesThanTheCap_whenSearchWithSecondTerm_thenFindTheFullMatch(){
+        // given - precondition or setup
+        IntStream.rangeClosed(1, EmployeeSearchIndex.MAX_CANDIDATES + 100).forEach(i ->
+                searchIndex.put(employee(i, "Alex" + i, "Smith", "alex" + i + "@gmail.com")));
+        // "alexz" sorts after every "alex<digits>" token, so its posting is scanned last
+        searchIndex.put(employee(9999L, "Alexz", "Doe", "alexz@gmail.com"));
+
+        // when - action or behaviour to be tested
+        List<Employee> results = searchIndex.search("alex doe", 10);
+
+        // then - verify the output
+        assertThat(results).extracting(Employee::getId).containsExactly(9999L);
+    }
+}
@@ -0,0 +1,214 @@
+package dev.thesarfo.springtesting.ingest;
+
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.ImportJobStatus;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeCsvImporterTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    @TempDir
+    Path tempDir;
+
+    private EmployeeCsvImporter csvImporter;
+
+    @BeforeEach
+    public void setup(){
+        // run jobs on the calling thread so the status is final when submit returns
+        csvImporter = new EmployeeCsvImporter(employeeService, new TaskExecutorAdapter(Runnable::run),
+                2, Duration.ofMinutes(1));
+    }
+
+    // CREATED for every row except the email "taken@gmail.com"
+    private void givenSaveEmployeesRejectsTakenEmail() {
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            List<BatchSaveResult> results = new ArrayList<>();
+            for (int i = 0; i < employees.size(); i++) {
+                Employee employee = employees.get(i);
+                results.add("taken@gmail.com".equals(employee.getEmail())
+                        ? BatchSaveResult.rejected(i, employee.getEmail(), BatchSaveResult.Status.DUPLICATE, "exists")
+                        : BatchSaveResult.created(i, employee));
+            }
+            return results;
+        });
+    }
+
+    @DisplayName("Unit test for importing a CSV file in chunks")
+    @Test
+    void givenCsvFile_whenSubmit_thenSaveInChunksAndReportProgress() throws IOException {
+        // given - precondition or setup
+        givenSaveEmployeesRejectsTakenEmail();
+        Path csv = Files.writeString(tempDir.resolve("employees.csv"), """
+                firstName,lastName,email,department
+                Ernest,Sarfo,sarfo@gmail.com,eng
+                Tony,Stark,taken@gmail.com,eng
+                Travis, Scott ,travis@gmail.com,ops
+                """);
+
+        // when - action or behaviour to be tested
+        ImportJobStatus status = csvImporter.submit(csv);
+
+        // then - verify the output
+        assertThat(status.state()).isEqualTo(ImportJobStatus.State.COMPLETED);
+        assertThat(status.rowsProcessed()).isEqualTo(3);
+        assertThat(status.created()).isEqualTo(2);
+        assertThat(status.rejected()).isEqualTo(1);
+        assertThat(status.failures()).extracting(BatchSaveResult::row).containsExactly(2);
+        assertThat(status.rowsPerSecond()).isPositive();
+        assertThat(status.finishedAt()).isNotNull();
+        assertThat(csvImporter.status(status.jobId())).contains(status);
+        assertThat(csv).doesNotExist();
+        verify(employeeService, times(2)).saveEmployees(anyList());
+    }
+
+    @DisplayName("Unit test for blank CSV cells")
+    @Test
+    void givenBlankCells_whenSubmit_thenEmployeesHaveNullFields() throws IOException {
+        // given - precondition or setup
+        List<Employee> saved = new ArrayList<>();
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            saved.addAll(employees);
+            return List.of(BatchSaveResult.created(0, employees.get(0)));
+        });
+        Path csv = Files.writeString(tempDir.resolve("employees.csv"), """
+                firstName,lastName,email
+                Ernest,Sarfo,
+                """);
+
+        // when - action or behaviour to be tested
+        ImportJobStatus status = csvImporter.submit(csv);
+
+        // then - verify the output
+        assertThat(saved).singleElement().satisfies(employee -> {
+            assertThat(employee.getFirstName()).isEqualTo("Ernest");
+            assertThat(employee.getEmail()).isNull();
+        });
+        assertThat(status.created()).isEqualTo(1);
+    }
+
+    @DisplayName("Unit test for rows rejected before they are saved")
+    @Test
+    void givenInvalidRows_whenSubmit_thenRejectThemWithoutSaving() throws IOException {
+        // given - precondition or setup
+        givenSaveEmployeesRejectsTakenEmail();
+        Path csv = Files.writeString(tempDir.resolve("employees.csv"), """
+                firstName,lastName,email
+                Ernest,,sarfo@gmail.com
+                Tony,Stark,not-an-email
+                %s,Scott,travis@gmail.com
+                Peter,Parker,parker@gmail.com
+                """.formatted("x".repeat(256)));
+
+        // when - action or behaviour to be tested
+        ImportJobStatus status = csvImporter.submit(csv);
+
+        // then - verify the output
+        assertThat(status.state()).isEqualTo(ImportJobStatus.State.COMPLETED);
+        assertThat(status.rowsProcessed()).isEqualTo(4);
+        assertThat(status.created()).isEqualTo(1);
+        assertThat(status.failures())
+                .extracting(BatchSaveResult::row, BatchSaveResult::status)
+                .containsExactly(
+                        tuple(1, BatchSaveResult.Status.INVALID),
+                        tuple(2, BatchSaveResult.Status.INVALID),
+                        tuple(3, BatchSaveResult.Status.INVALID));
+        verify(employeeService).saveEmployees(anyList());
+    }
+
+    @DisplayName("Unit test for a chunk that breaks a constraint")
+    @Test
+    void givenChunkViolatingConstraint_whenSubmit_thenRejectOnlyTheFailingRow() throws IOException {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            if (employees.stream().anyMatch(employee -> "stark@gmail.com".equals(employee.getEmail()))) {
+                throw new DataIntegrityViolationException("uk_employees_email");
+            }
+            List<BatchSaveResult> results = new ArrayList<>();
+            for (int i = 0; i < employees.size(); i++) {
+                results.add(BatchSaveResult.created(i, employees.get(i)));
+            }
+            return results;
+        });
+        Path csv = Files.writeString(tempDir.resolve("employees.csv"), """
+                firstName,lastName,email
+                Ernest,Sarfo,sarfo@gmail.com
+                Tony,Stark,stark@gmail.com
+                Travis,Scott,travis@gmail.com
+                """);
+
+        // when - action or behaviour to be tested
+        ImportJobStatus status = csvImporter.submit(csv);
+
+        // then - verify the output
+        assertThat(status.state()).isEqualTo(ImportJobStatus.State.COMPLETED);
+        assertThat(status.rowsProcessed()).isEqualTo(3);
+        assertThat(status.created()).isEqualTo(2);
+        assertThat(status.failures()).singleElement().satisfies(failure -> {
+            assertThat(failure.row()).isEqualTo(2);
+            assertThat(failure.status()).isEqualTo(BatchSaveResult.Status.INVALID);
+            assertThat(failure.message()).doesNotContain("uk_employees_email");
+        });
+    }
+
+    @DisplayName("Unit test for a chunk that fails to save")
+    @Test
+    void givenFailingChunk_whenSubmit_thenJobFailsWithEarlierChunksCounted() throws IOException {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(anyList()))
+                .willAnswer(invocation -> {
+                    List<Employee> employees = invocation.getArgument(0);
+                    List<BatchSaveResult> results = new ArrayList<>();
+                    for (int i = 0; i < employees.size(); i++) {
+                        results.add(BatchSaveResult.created(i, employees.get(i)));
+                    }
+                    return results;
+                })
+                .willThrow(new IllegalStateException("database unavailable"));
+        Path csv = Files.writeString(tempDir.resolve("employees.csv"), """
+                firstName,lastName,email
+                Ernest,Sarfo,sarfo@gmail.com
+                Tony,Stark,stark@gmail.com
+                Travis,Scott,travis@gmail.com
+                """);
+
+        // when - action or behaviour to be tested
+        ImportJobStatus status = csvImporter.submit(csv);
+
+        // then - verify the output
+        assertThat(status.state()).isEqualTo(ImportJobStatus.State.FAILED);
+        assertThat(status.created()).isEqualTo(2);
+        assertThat(status.message())
+                .isEqualTo("Stopped at row 3: the rows could not be saved")
+                .doesNotContain("database unavailable");
+    }
+}
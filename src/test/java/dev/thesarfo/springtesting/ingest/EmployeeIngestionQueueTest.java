@@ -0,0 +1,155 @@
+package dev.thesarfo.springtesting.ingest;
+
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.IngestionStatus;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeIngestionQueueTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private EmployeeIngestionQueue ingestionQueue;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        ingestionQueue = new EmployeeIngestionQueue(employeeService, new SimpleMeterRegistry(),
+                2, 10, Duration.ofMillis(10), Duration.ofMinutes(1));
+        employee = Employee.builder()
+                .firstName("Ernest")
+                .lastName("Sarfo")
+                .email("sarfo@gmail.com")
+                .build();
+    }
+
+    @DisplayName("Unit test for backpressure on a full queue")
+    @Test
+    void givenFullQueue_whenOffer_thenRefuse(){
+        // given - precondition or setup
+        ingestionQueue.offer(employee);
+        ingestionQueue.offer(employee);
+
+        // when - action or behaviour to be tested
+        Optional<UUID> trackingId = ingestionQueue.offer(employee);
+
+        // then - verify the output
+        assertThat(trackingId).isEmpty();
+    }
+
+    @DisplayName("Unit test for writing queued employees in one batch")
+    @Test
+    void givenQueuedEmployees_whenFlush_thenStatusPerTrackingId(){
+        // given - precondition or setup
+        UUID created = UUID.randomUUID();
+        UUID duplicate = UUID.randomUUID();
+        given(employeeService.saveEmployees(anyList())).willReturn(List.of(
+                new BatchSaveResult(0, "sarfo@gmail.com", BatchSaveResult.Status.CREATED, 7L, null),
+                BatchSaveResult.rejected(1, "sarfo@gmail.com", BatchSaveResult.Status.DUPLICATE, "already exists")));
+
+        // when - action or behaviour to be tested
+        ingestionQueue.flush(List.of(
+                new EmployeeIngestionQueue.Task(created, employee),
+                new EmployeeIngestionQueue.Task(duplicate, employee)));
+
+        // then - verify the output
+        assertThat(ingestionQueue.status(created)).get()
+                .extracting(IngestionStatus::state, IngestionStatus::employeeId)
+                .containsExactly(IngestionStatus.State.CREATED, 7L);
+        assertThat(ingestionQueue.status(duplicate)).get()
+                .extracting(IngestionStatus::state)
+                .isEqualTo(IngestionStatus.State.REJECTED);
+    }
+
+    @DisplayName("Unit test for a batch that fails to save")
+    @Test
+    void givenFailingSave_whenFlush_thenStatusIsFailedWithoutTheCause(){
+        // given - precondition or setup
+        UUID trackingId = UUID.randomUUID();
+        given(employeeService.saveEmployees(anyList()))
+                .willThrow(new IllegalStateException("Duplicate entry for key 'uk_employees_email'"));
+
+        // when - action or behaviour to be tested
+        ingestionQueue.flush(List.of(new EmployeeIngestionQueue.Task(trackingId, employee)));
+
+        // then - verify the output
+        assertThat(ingestionQueue.status(trackingId)).get().satisfies(status -> {
+            assertThat(status.state()).isEqualTo(IngestionStatus.State.FAILED);
+            assertThat(status.message()).doesNotContain("uk_employees_email");
+        });
+    }
+
+    @DisplayName("Unit test for a batch with one bad row retried row by row")
+    @Test
+    void givenOneBadRowInBatch_whenFlush_thenOnlyThatRowFails(){
+        // given - precondition or setup
+        Employee bad = Employee.builder().firstName("Tony").lastName("Stark").email("stark@gmail.com").build();
+        UUID first = UUID.randomUUID();
+        UUID broken = UUID.randomUUID();
+        UUID last = UUID.randomUUID();
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            if (employees.contains(bad)) {
+                throw new IllegalStateException("value too long for column 'first_name'");
+            }
+            return List.of(new BatchSaveResult(0, "sarfo@gmail.com", BatchSaveResult.Status.CREATED, 7L, null));
+        });
+
+        // when - action or behaviour to be tested
+        ingestionQueue.flush(List.of(
+                new EmployeeIngestionQueue.Task(first, employee),
+                new EmployeeIngestionQueue.Task(broken, bad),
+                new EmployeeIngestionQueue.Task(last, employee)));
+
+        // then - verify the output
+        assertThat(ingestionQueue.status(first)).get()
+                .extracting(IngestionStatus::state)
+                .isEqualTo(IngestionStatus.State.CREATED);
+        assertThat(ingestionQueue.status(broken)).get()
+                .extracting(IngestionStatus::state)
+                .isEqualTo(IngestionStatus.State.FAILED);
+        assertThat(ingestionQueue.status(last)).get()
+                .extracting(IngestionStatus::state)
+                .isEqualTo(IngestionStatus.State.CREATED);
+        verify(employeeService, times(4)).saveEmployees(anyList());
+    }
+
+    @DisplayName("Unit test for the background writer draining the queue")
+    @Test
+    void givenStartedQueue_whenOffer_thenEmployeeIsWritten() throws InterruptedException {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(anyList())).willReturn(List.of(
+                new BatchSaveResult(0, "sarfo@gmail.com", BatchSaveResult.Status.CREATED, 7L, null)));
+        ingestionQueue.start();
+
+        // when - action or behaviour to be tested
+        UUID trackingId = ingestionQueue.offer(employee).orElseThrow();
+        ingestionQueue.stop();
+
+        // then - verify the output
+        assertThat(ingestionQueue.status(trackingId)).get()
+                .extracting(IngestionStatus::state)
+                .isEqualTo(IngestionStatus.State.CREATED);
+    }
+}
@@ -1,26 +1,28 @@
 package dev.thesarfo.springtesting.integration;
 
-import org.springframework.test.context.DynamicPropertyRegistry;
-import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.ContextCustomizerFactories;
 import org.testcontainers.containers.MySQLContainer;
 
+// One MySQL server for the whole run, but every test class gets its own freshly migrated database on it
+// (see IsolatedSchemaContextCustomizerFactory), so classes can run in parallel without sharing rows.
+// -Dtests.database=embedded swaps the container for one in-memory H2 database per class.
+@ContextCustomizerFactories(IsolatedSchemaContextCustomizerFactory.class)
 public abstract class AbstractionBaseTest {
 
+    static final boolean EMBEDDED = "embedded".equals(System.getProperty("tests.database"));
+
     static final MySQLContainer MY_SQL_CONTAINER;
 
     static {
-        MY_SQL_CONTAINER = new MySQLContainer("mysql:latest")
-                .withUsername("username")
-                .withPassword("password")
-                .withDatabaseName("ems");
-
-        MY_SQL_CONTAINER.start();
-    }
+        if (EMBEDDED) {
+            MY_SQL_CONTAINER = null;
+        } else {
+            MY_SQL_CONTAINER = new MySQLContainer("mysql:latest")
+                    .withUsername("username")
+                    .withPassword("password")
+                    .withDatabaseName("ems");
 
-    @DynamicPropertySource
-    public static void dynamicPropertySource(DynamicPropertyRegistry registry) {
-        registry.add("spring.datasource.url", MY_SQL_CONTAINER::getJdbcUrl);
-        registry.add("spring.datasource.username", MY_SQL_CONTAINER::getUsername);
-        registry.add("spring.datasource.password", MY_SQL_CONTAINER::getPassword);
+            MY_SQL_CONTAINER.start();
+        }
     }
 }
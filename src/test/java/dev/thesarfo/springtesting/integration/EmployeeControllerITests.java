@@ -25,7 +25,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
-public class EmployeeControllerITests {
+public class EmployeeControllerITests extends AbstractionBaseTest {
 
     @Autowired
     private MockMvc mockMvc;
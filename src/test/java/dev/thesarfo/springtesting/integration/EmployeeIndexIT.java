@@ -0,0 +1,69 @@
+package dev.thesarfo.springtesting.integration;
+
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// runs against the Flyway-migrated MySQL schema and asks the optimizer how it would execute each lookup;
+// EXPLAIN output is MySQL's own, so there is nothing to check against the embedded stand-in
+@DisabledIfSystemProperty(named = "tests.database", matches = "embedded")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EmployeeIndexIT extends AbstractionBaseTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup(){
+        // enough distinct rows that a table scan is never the cheaper plan
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            employees.add(Employee.builder()
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("employee" + i + "@gmail.com")
+                    .build());
+        }
+        employeeRepository.saveAllAndFlush(employees);
+    }
+
+    @DisplayName("Integration test for findByEmail using the unique email index")
+    @Test
+    void givenEmail_whenExplainFindByEmail_thenUsesEmailIndex(){
+        // when - action or behaviour to be tested
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+                "EXPLAIN SELECT * FROM employees e WHERE e.email = ?", "employee42@gmail.com");
+
+        // then - verify the output
+        assertThat(plan.get("key")).isEqualTo("uk_employees_email");
+    }
+
+    @DisplayName("Integration test for the name lookups using the composite name index")
+    @Test
+    void givenFirstAndLastName_whenExplainNameLookup_thenUsesNameIndex(){
+        // when - action or behaviour to be tested
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+                "EXPLAIN SELECT * FROM employees e where e.first_name = ? and e.last_name = ?", "first42", "last42");
+
+        // then - verify the output
+        assertThat(plan.get("key")).isEqualTo("idx_employees_name");
+        assertThat(plan.get("type")).isEqualTo("ref");
+    }
+}
@@ -0,0 +1,109 @@
+package dev.thesarfo.springtesting.integration;
+
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// no test transaction here on purpose: each repository call gets its own session, so a repeated lookup
+// can only avoid SQL by going through the second-level and query caches
+@SpringBootTest
+class EmployeeSecondLevelCacheIT extends AbstractionBaseTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setup(){
+        employeeRepository.deleteAll();
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("sarfo")
+                .lastName("kofi")
+                .email("cached@gmail.com")
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @DisplayName("Integration test for findById served from the second-level cache")
+    @Test
+    void givenCachedEmployee_whenFindByIdTwice_thenNoSqlIsIssued(){
+        // given - precondition or setup
+        employeeRepository.findById(employee.getId());
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+
+        // when - action or behaviour to be tested
+        employeeRepository.findById(employee.getId());
+
+        // then - verify the output
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLookup);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @DisplayName("Integration test for findByEmail served from the query cache")
+    @Test
+    void givenCachedQuery_whenFindByEmailTwice_thenNoSqlIsIssued(){
+        // given - precondition or setup
+        employeeRepository.findByEmail(employee.getEmail());
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+
+        // when - action or behaviour to be tested
+        employeeRepository.findByEmail(employee.getEmail());
+
+        // then - verify the output
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLookup);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Integration test for JPQL name lookups served from the query cache")
+    @Test
+    void givenCachedQuery_whenFindByJPQLTwice_thenNoSqlIsIssued(){
+        // given - precondition or setup
+        employeeRepository.findByJPQL(employee.getFirstName(), employee.getLastName());
+        employeeRepository.findByJPQLNamedParams(employee.getFirstName(), employee.getLastName());
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+        // both queries render the same SQL, so the named-param lookup above may already be a hit on the
+        // positional one's entry; only count hits from here on
+        long hitsAfterFirstLookup = statistics.getQueryCacheHitCount();
+
+        // when - action or behaviour to be tested
+        employeeRepository.findByJPQL(employee.getFirstName(), employee.getLastName());
+        employeeRepository.findByJPQLNamedParams(employee.getFirstName(), employee.getLastName());
+
+        // then - verify the output
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLookup);
+        assertThat(statistics.getQueryCacheHitCount() - hitsAfterFirstLookup).isEqualTo(2);
+    }
+
+    @DisplayName("Integration test for query cache invalidation on write")
+    @Test
+    void givenCachedQuery_whenEmployeeUpdated_thenLookupGoesToDatabase(){
+        // given - precondition or setup
+        employeeRepository.findByEmail(employee.getEmail());
+        employee.setFirstName("konadu");
+        employeeRepository.save(employee);
+        long statementsAfterUpdate = statistics.getPrepareStatementCount();
+
+        // when - action or behaviour to be tested
+        Employee reloaded = employeeRepository.findByEmail(employee.getEmail()).orElseThrow();
+
+        // then - verify the output
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(statementsAfterUpdate);
+        assertThat(reloaded.getFirstName()).isEqualTo("konadu");
+    }
+}
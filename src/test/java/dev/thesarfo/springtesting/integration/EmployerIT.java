@@ -9,13 +9,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -49,6 +57,9 @@ class EmployeeIT extends AbstractionBaseTest{
     @Autowired
     private MockMvc mockMvc;
 
+    @LocalServerPort
+    private int port;
+
     @Autowired
     private EmployeeRepository employeeRepository;
 
@@ -83,6 +94,35 @@ class EmployeeIT extends AbstractionBaseTest{
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    @DisplayName("Integration test for a large employee list served gzipped")
+    @Test
+    void givenManyEmployees_whenGetAllEmployeesAcceptingGzip_thenResponseIsCompressed() throws Exception{
+        // given - precondition or setup
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(Employee.builder().firstName("first" + i).lastName("last" + i)
+                    .email("employee" + i + "@gmail.com").build());
+        }
+        employeeRepository.saveAll(employees);
+
+        // when - action or behaviour to be tested
+        // compression happens in Tomcat's connector, which MockMvc bypasses
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?limit=100"))
+                        .header("Accept", "application/json")
+                        .header("Accept-Encoding", "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        // then - verify the output
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(etag -> assertThat(etag).startsWith("W/"));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertThat(objectMapper.readTree(body).size()).isEqualTo(100);
+        }
+    }
+
     @DisplayName("Integration test Get All Employees Controller")
     @Test
     void givenListOfEmployees_whenGetAllEmployees_thenReturnAllEmployees() throws Exception{
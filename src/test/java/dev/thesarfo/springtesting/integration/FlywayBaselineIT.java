@@ -0,0 +1,59 @@
+package dev.thesarfo.springtesting.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a database from before Flyway: the employees table as Hibernate's ddl-auto=update created it, with rows.
+// Only the MySQL migrations ever meet such a schema
+@DisabledIfSystemProperty(named = "tests.database", matches = "embedded")
+class FlywayBaselineIT extends AbstractionBaseTest {
+
+    private static final String DATABASE = "it_flywaybaselineit";
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createLegacySchema(){
+        JdbcTemplate root = new JdbcTemplate(new DriverManagerDataSource(
+                MY_SQL_CONTAINER.getJdbcUrl(), "root", MY_SQL_CONTAINER.getPassword()));
+        root.execute("DROP DATABASE IF EXISTS " + DATABASE);
+        root.execute("CREATE DATABASE " + DATABASE);
+
+        dataSource = new DriverManagerDataSource("jdbc:mysql://" + MY_SQL_CONTAINER.getHost() + ":"
+                + MY_SQL_CONTAINER.getMappedPort(3306) + "/" + DATABASE + "?useSSL=false&allowPublicKeyRetrieval=true",
+                "root", MY_SQL_CONTAINER.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT NOT NULL AUTO_INCREMENT, email VARCHAR(255), "
+                + "first_name VARCHAR(255) NOT NULL, last_name VARCHAR(255) NOT NULL, PRIMARY KEY (id)) ENGINE = InnoDB");
+        jdbcTemplate.update("INSERT INTO employees (id, email, first_name, last_name) VALUES "
+                + "(1, 'a@gmail.com', 'a', 'a'), (2, 'b@gmail.com', 'b', 'b'), (120, 'c@gmail.com', 'c', 'c')");
+    }
+
+    @DisplayName("Integration test for migrating a schema created by ddl-auto=update")
+    @Test
+    void givenLegacySchemaWithRows_whenMigrate_thenSequenceStartsPastExistingIds(){
+        // when - action or behaviour to be tested
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/mysql")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        // then - verify the output
+        // the first block handed out is next_val - 49 .. next_val
+        long nextVal = jdbcTemplate.queryForObject("SELECT next_val FROM employees_seq", Long.class);
+        assertThat(nextVal - 49).isGreaterThan(120L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Long.class)).isEqualTo(3L);
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM employees WHERE id = 120", Long.class)).isZero();
+    }
+}
@@ -0,0 +1,63 @@
+package dev.thesarfo.springtesting.integration;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Points each test class's context at a database named after the class. The database is dropped and created
+// when the context starts and Flyway migrates it as usual, so a class never sees another class's rows. The
+// customizer is a record keyed by that name, so each class keeps one cached context across all its methods.
+class IsolatedSchemaContextCustomizerFactory implements ContextCustomizerFactory {
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                     List<ContextConfigurationAttributes> configAttributes) {
+        return new IsolatedSchema("it_" + testClass.getSimpleName().toLowerCase(Locale.ROOT));
+    }
+
+    record IsolatedSchema(String name) implements ContextCustomizer {
+
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration mergedConfig) {
+            Map<String, Object> properties = new HashMap<>();
+            if (AbstractionBaseTest.EMBEDDED) {
+                properties.put("spring.datasource.url",
+                        "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+                properties.put("spring.datasource.username", "sa");
+                properties.put("spring.datasource.password", "");
+            } else {
+                recreateDatabase();
+                properties.put("spring.datasource.url", "jdbc:mysql://" + AbstractionBaseTest.MY_SQL_CONTAINER.getHost()
+                        + ":" + AbstractionBaseTest.MY_SQL_CONTAINER.getMappedPort(3306) + "/" + name
+                        + "?useSSL=false&allowPublicKeyRetrieval=true&useCursorFetch=true&rewriteBatchedStatements=true");
+                properties.put("spring.datasource.username", "root");
+                properties.put("spring.datasource.password", AbstractionBaseTest.MY_SQL_CONTAINER.getPassword());
+            }
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("isolatedSchema", properties));
+        }
+
+        // the container's application user only has rights on its own database, so this runs as root
+        private void recreateDatabase() {
+            try (Connection connection = DriverManager.getConnection(AbstractionBaseTest.MY_SQL_CONTAINER.getJdbcUrl(),
+                    "root", AbstractionBaseTest.MY_SQL_CONTAINER.getPassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP DATABASE IF EXISTS `" + name + "`");
+                statement.execute("CREATE DATABASE `" + name + "`");
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not create test database " + name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dev.thesarfo.springtesting.integration;
+
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RepositoryMetricsIT extends AbstractionBaseTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DisplayName("Integration test for per-method repository timers")
+    @Test
+    void givenRepositoryCalls_whenReadMetrics_thenTimerPerMethod(){
+        // given - precondition or setup
+        employeeRepository.save(Employee.builder()
+                .firstName("metric")
+                .lastName("timer")
+                .email("metrics@gmail.com")
+                .build());
+
+        // when - action or behaviour to be tested
+        employeeRepository.findByEmail("metrics@gmail.com");
+        employeeRepository.findByJPQL("metric", "timer");
+
+        // then - verify the output
+        Timer findByEmail = meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "EmployeeRepository")
+                .tag("method", "findByEmail")
+                .timer();
+        assertThat(findByEmail.count()).isPositive();
+        assertThat(meterRegistry.get("spring.data.repository.invocations")
+                .tag("method", "findByJPQL")
+                .timer().count()).isPositive();
+    }
+
+    @DisplayName("Integration test for exported Hibernate statistics")
+    @Test
+    void givenHibernateStatistics_whenReadMetrics_thenStatisticsAreExported(){
+        // when - action or behaviour to be tested
+        employeeRepository.findAll();
+
+        // then - verify the output
+        assertThat(meterRegistry.get("hibernate.statements").tag("status", "prepared").functionCounter().count())
+                .isPositive();
+        assertThat(meterRegistry.find("hibernate.flushes").meter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.entities.loads").meter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").meters()).isNotEmpty();
+    }
+}
@@ -0,0 +1,205 @@
+package dev.thesarfo.springtesting.loadtest;
+
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.service.EmployeeService;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+// Only runs under ./mvnw -Ploadtest test. Drives a fixed-rate mix of creates, point reads and list pages at the
+// real HTTP stack on an in-memory database, and fails when a percentile or the achieved rate misses
+// loadtest/thresholds.properties. Histograms are written to target/loadtest for comparing runs.
+@Tag("load")
+@Isolated
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// all traffic comes from one client, so lift the per-client rate limit; the concurrency limits stay in place
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "employees.admission.rate-per-second=1000000",
+        "employees.admission.burst=1000000"
+})
+@ActiveProfiles("embedded")
+class EmployeeLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeLoadTest.class);
+
+    enum Kind {
+        CREATE, GET, LIST;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final Map<String, Double> PERCENTILES = new LinkedHashMap<>(Map.of("p50", 50.0, "p99", 99.0, "p999", 99.9));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong created = new AtomicLong();
+    private Properties settings;
+    private List<Long> seededIds;
+
+    @BeforeAll
+    void seed() throws IOException {
+        settings = loadSettings();
+        int count = Integer.parseInt(setting("loadtest.seed-employees"));
+        List<Employee> employees = IntStream.range(0, count)
+                .mapToObj(i -> Employee.builder()
+                        .firstName("Seed" + i)
+                        .lastName("Employee")
+                        .email("seed" + i + "@load.test")
+                        .build())
+                .toList();
+        seededIds = employeeService.saveEmployees(employees).stream()
+                .map(BatchSaveResult::id)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @DisplayName("Load test for a mix of create, get and list requests at a fixed arrival rate")
+    @Test
+    void givenFixedArrivalRate_whenDrivingTrafficMix_thenLatencyAndThroughputStayWithinThresholds() throws Exception {
+
+        // given - precondition or setup
+        double rate = Double.parseDouble(setting("loadtest.rate"));
+        Map<Kind, Integer> mix = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            mix.put(kind, Integer.parseInt(setting("loadtest.mix." + kind.key())));
+        }
+        FixedRateLoadGenerator<Kind> generator = new FixedRateLoadGenerator<>(Kind.class, mix, rate, this::send);
+
+        // when - action or the behaviour that we are going test
+        Map<Kind, FixedRateLoadGenerator.Result> results = generator.run(
+                Duration.parse(setting("loadtest.warmup")), Duration.parse(setting("loadtest.duration")));
+
+        // then - verify the output
+        report(results);
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        double minRatio = Double.parseDouble(setting("loadtest.min-throughput-ratio"));
+        double maxErrorRate = Double.parseDouble(setting("loadtest.max-error-rate"));
+        assertSoftly(softly -> results.forEach((kind, result) -> {
+            Histogram latencies = result.latencies();
+            PERCENTILES.forEach((name, percentile) -> {
+                long limitMillis = Long.parseLong(setting("loadtest." + kind.key() + "." + name));
+                softly.assertThat(TimeUnit.NANOSECONDS.toMillis(latencies.getValueAtPercentile(percentile)))
+                        .as("%s %s (ms)", kind, name)
+                        .isLessThanOrEqualTo(limitMillis);
+            });
+            double scheduled = rate * mix.get(kind) / totalWeight;
+            softly.assertThat(result.throughput())
+                    .as("%s throughput (req/s)", kind)
+                    .isGreaterThanOrEqualTo(scheduled * minRatio);
+            softly.assertThat(result.errorRate())
+                    .as("%s error rate", kind)
+                    .isLessThanOrEqualTo(maxErrorRate);
+        }));
+    }
+
+    private void send(Kind kind) throws IOException, InterruptedException {
+        HttpRequest request = switch (kind) {
+            case CREATE -> {
+                long n = created.incrementAndGet();
+                String body = "{\"firstName\":\"Load\",\"lastName\":\"Test" + n
+                        + "\",\"email\":\"load" + n + "@load.test\"}";
+                yield request("/api/employees")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            case GET -> request("/api/employees/" + seededIds.get(ThreadLocalRandom.current().nextInt(seededIds.size())))
+                    .GET()
+                    .build();
+            case LIST -> request("/api/employees?limit=50&after=" + seededIds.get(ThreadLocalRandom.current().nextInt(seededIds.size())))
+                    .GET()
+                    .build();
+        };
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IOException(kind + " returned " + response.statusCode());
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Accept", "application/json");
+    }
+
+    private void report(Map<Kind, FixedRateLoadGenerator.Result> results) throws IOException {
+        Path directory = Files.createDirectories(Path.of("target", "loadtest"));
+        List<String> summary = new ArrayList<>();
+        for (Map.Entry<Kind, FixedRateLoadGenerator.Result> entry : results.entrySet()) {
+            Histogram latencies = entry.getValue().latencies();
+            summary.add(String.format("%-6s n=%d failed=%d rate=%.1f/s p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+                    entry.getKey(), entry.getValue().completed(), entry.getValue().failed(),
+                    entry.getValue().throughput(), millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue())));
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(entry.getKey().key() + ".hgrm")))) {
+                // scaled to milliseconds so the file loads straight into the HdrHistogram plotter
+                latencies.outputPercentileDistribution(out, 1_000_000.0);
+            }
+        }
+        Files.write(directory.resolve("summary.txt"), summary);
+        summary.forEach(line -> log.info("{}", line));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private String setting(String key) {
+        return System.getProperty(key, settings.getProperty(key));
+    }
+
+    private static Properties loadSettings() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = EmployeeLoadTest.class.getResourceAsStream("/loadtest/thresholds.properties")) {
+            properties.load(in);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,111 @@
+package dev.thesarfo.springtesting.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load: requests are started on a fixed schedule whether or not earlier ones have finished, and each
+// latency is measured from when the request was *due*, not when it was sent. A stalled server therefore shows
+// up as queueing in the percentiles instead of quietly lowering the request rate (coordinated omission).
+class FixedRateLoadGenerator<O extends Enum<O>> {
+
+    static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // one request of the given kind; returns normally on success, throws on any failure
+    interface Operation<O> {
+        void call(O kind) throws Exception;
+    }
+
+    record Result(Histogram latencies, long completed, long failed, double seconds) {
+
+        double throughput() {
+            return completed / seconds;
+        }
+
+        double errorRate() {
+            long total = completed + failed;
+            return total == 0 ? 0 : (double) failed / total;
+        }
+    }
+
+    private final Class<O> kinds;
+    private final Map<O, Integer> weights;
+    private final double requestsPerSecond;
+    private final Operation<O> operation;
+    private final Random random = new Random(42);
+
+    FixedRateLoadGenerator(Class<O> kinds, Map<O, Integer> weights, double requestsPerSecond, Operation<O> operation) {
+        this.kinds = kinds;
+        this.weights = weights;
+        this.requestsPerSecond = requestsPerSecond;
+        this.operation = operation;
+    }
+
+    Map<O, Result> run(Duration warmup, Duration duration) throws InterruptedException {
+        drive(warmup);
+        return drive(duration);
+    }
+
+    private Map<O, Result> drive(Duration duration) throws InterruptedException {
+        Map<O, Histogram> latencies = new EnumMap<>(kinds);
+        Map<O, AtomicLong> completed = new EnumMap<>(kinds);
+        Map<O, AtomicLong> failed = new EnumMap<>(kinds);
+        for (O kind : kinds.getEnumConstants()) {
+            latencies.put(kind, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+            completed.put(kind, new AtomicLong());
+            failed.put(kind, new AtomicLong());
+        }
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                O kind = pick();
+                long scheduled = due;
+                requests.execute(() -> {
+                    try {
+                        operation.call(kind);
+                        latencies.get(kind).recordValue(Math.min(System.nanoTime() - scheduled, HIGHEST_TRACKABLE_NANOS));
+                        completed.get(kind).incrementAndGet();
+                    } catch (Exception e) {
+                        failed.get(kind).incrementAndGet();
+                    }
+                });
+            }
+        }
+        // closing the executor waited for the stragglers, so this includes the time to drain them
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<O, Result> results = new EnumMap<>(kinds);
+        for (O kind : kinds.getEnumConstants()) {
+            results.put(kind, new Result(latencies.get(kind), completed.get(kind).get(), failed.get(kind).get(), seconds));
+        }
+        return results;
+    }
+
+    private O pick() {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int ticket = random.nextInt(total);
+        for (Map.Entry<O, Integer> weight : weights.entrySet()) {
+            ticket -= weight.getValue();
+            if (ticket < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("empty traffic mix");
+    }
+}
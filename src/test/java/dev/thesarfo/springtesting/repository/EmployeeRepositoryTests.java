@@ -1,13 +1,16 @@
 package dev.thesarfo.springtesting.repository;
 
 import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.EmployeeField;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -182,4 +185,108 @@ class EmployeeRepositoryTests {
         assertThat(gottenEmployee.getFirstName()).isEqualTo(employee.getFirstName());
     }
 
+    @DisplayName("Unit test for projection selecting only the requested fields")
+    @Test
+    void givenIdAndEmailFields_whenFindFieldsByIdGreaterThan_thenReturnOnlyThoseColumns(){
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or behaviour to be tested
+        List<Map<String, Object>> rows = employeeRepository.findFieldsByIdGreaterThan(
+                0L, 10, EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL));
+
+        // then - verify the output
+        assertThat(rows.size()).isEqualTo(1);
+        assertThat(rows.get(0)).isEqualTo(Map.of("id", employee.getId(), "email", employee.getEmail()));
+    }
+
+    @DisplayName("Unit test for targeted update guarded by the version")
+    @Test
+    void givenSavedEmployee_whenUpdateFields_thenOnlyMatchingVersionIsUpdated(){
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+
+        // when - action or behaviour to be tested
+        int updated = employeeRepository.updateFields(employee.getId(), 0L, Map.of(EmployeeField.EMAIL, "patched@gmail.com"));
+        int stale = employeeRepository.updateFields(employee.getId(), 0L, Map.of(EmployeeField.EMAIL, "stale@gmail.com"));
+        int next = employeeRepository.updateFields(employee.getId(), 1L, Map.of(EmployeeField.FIRST_NAME, "kwame"));
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isEqualTo(0);
+        assertThat(next).isEqualTo(1);
+    }
+
+    @DisplayName("Unit test for single-statement delete by ids")
+    @Test
+    void givenSavedEmployees_whenDeleteByIds_thenReturnDeletedCount(){
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("hoha")
+                .lastName("aja")
+                .email("hohaaja@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+
+        // when - action or behaviour to be tested
+        int deleted = employeeRepository.deleteByIds(List.of(employee.getId(), employee1.getId(), -1L));
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(2);
+        assertThat(employeeRepository.count()).isEqualTo(0L);
+    }
+
+    @DisplayName("Unit test for finding ids matching a filter")
+    @Test
+    void givenFilter_whenFindIdsMatching_thenReturnMatchingIdsAfterCursor(){
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("hoha")
+                .lastName("kofi")
+                .email("hohaaja@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("ama")
+                .lastName("mensah")
+                .email("ama@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+        employeeRepository.save(employee2);
+
+        // when - action or behaviour to be tested
+        List<Long> ids = employeeRepository.findIdsMatching(Map.of(EmployeeField.LAST_NAME, "kofi"), 0L, 10);
+
+        // then - verify the output
+        assertThat(ids).isEqualTo(List.of(employee.getId(), employee1.getId()));
+    }
+
+    @DisplayName("Unit test for finding ids matching an id filter")
+    @Test
+    void givenIdFilter_whenFindIdsMatching_thenCompareAsNumber(){
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or behaviour to be tested
+        List<Long> ids = employeeRepository.findIdsMatching(
+                Map.of(EmployeeField.ID, Long.toString(employee.getId())), 0L, 10);
+
+        // then - verify the output
+        assertThat(ids).isEqualTo(List.of(employee.getId()));
+    }
+
+    @DisplayName("Unit test for bumping the list version")
+    @Test
+    void givenTableVersion_whenBumpTableVersion_thenVersionIncreases(){
+        // given - precondition or setup
+        long before = employeeRepository.findTableVersion();
+
+        // when - action or behaviour to be tested
+        employeeRepository.bumpTableVersion();
+
+        // then - verify the output
+        assertThat(employeeRepository.findTableVersion()).isEqualTo(before + 1);
+    }
+
 }
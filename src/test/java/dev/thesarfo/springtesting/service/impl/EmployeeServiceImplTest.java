@@ -1,25 +1,50 @@
 package dev.thesarfo.springtesting.service.impl;
 
+import dev.thesarfo.springtesting.cache.EmployeeCache;
 import dev.thesarfo.springtesting.exception.ResourceNotFoundException;
+import dev.thesarfo.springtesting.index.EmailBloomFilter;
+import dev.thesarfo.springtesting.index.EmployeeSearchIndex;
+import dev.thesarfo.springtesting.model.BatchSaveResult;
+import dev.thesarfo.springtesting.model.CursorPage;
 import dev.thesarfo.springtesting.model.Employee;
+import dev.thesarfo.springtesting.model.EmployeeField;
 import dev.thesarfo.springtesting.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,6 +55,22 @@ class EmployeeServiceImplTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EmailBloomFilter emailFilter;
+
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private EmployeeCache employeeCache = new EmployeeCache(
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(5), Duration.ofSeconds(5));
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -49,9 +90,10 @@ class EmployeeServiceImplTest {
     @Test
     void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject(){
         // given - precondition or setup
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
         given(employeeRepository.findByEmail(employee.getEmail()))
                 .willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         // when - action or behaviour to be tested
         Employee savedEmployee = employeeService.saveEmployee(employee);
@@ -64,6 +106,7 @@ class EmployeeServiceImplTest {
     @Test
     void givenExistingEmail_whenSaveEmployee_thenThrowsException(){
         // given - precondition or setup
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(true);
         given(employeeRepository.findByEmail(employee.getEmail()))
                 .willReturn(Optional.of(employee));
 //        given(employeeRepository.save(employee)).willReturn(employee);
@@ -73,7 +116,160 @@ class EmployeeServiceImplTest {
 
         // then - verify the output
         //assertThat(savedEmployee).isNotNull();
-        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository, never()).saveAndFlush(any(Employee.class));
+    }
+
+    @DisplayName("Unit test for saveEmployee skipping the duplicate lookup")
+    @Test
+    void givenEmailAbsentFromFilter_whenSaveEmployee_thenSkipFindByEmail(){
+        // given - precondition or setup
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(false);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+        // when - action or behaviour to be tested
+        Employee savedEmployee = employeeService.saveEmployee(employee);
+
+        // then - verify the output
+        assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(anyString());
+        verify(emailFilter).put(employee.getEmail());
+    }
+
+    @DisplayName("Unit test for saveEmployee evicting a not-found cached before commit")
+    @Test
+    void givenLookupBeforeCommit_whenSaveEmployeeCommits_thenNotFoundEvicted(){
+        // given - precondition or setup
+        given(emailFilter.mightContain(employee.getEmail())).willReturn(false);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.saveEmployee(employee);
+            // a concurrent GET that cannot see the uncommitted row yet
+            employeeCache.get(1L, id -> Optional.empty());
+
+            // when - action or behaviour to be tested
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then - verify the output
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        assertThat(employeeService.getEmployeeById(1L)).contains(employee);
+    }
+
+    @DisplayName("Unit test for saveEmployees reports duplicates per row")
+    @Test
+    void givenExistingAndRepeatedEmails_whenSaveEmployees_thenReportResultPerRow(){
+        // given - precondition or setup
+        Employee existing = Employee.builder().firstName("Tony").lastName("Stark").email("stark@gmail.com").build();
+        Employee repeated = Employee.builder().firstName("Ernest").lastName("Sarfo").email("sarfo@gmail.com").build();
+        Employee invalid = Employee.builder().firstName("Nameless").email("nameless@gmail.com").build();
+        given(emailFilter.mightContain(anyString())).willReturn(true);
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Set.of("stark@gmail.com"));
+
+        // when - action or behaviour to be tested
+        List<BatchSaveResult> results = employeeService.saveEmployees(List.of(employee, existing, repeated, invalid));
+
+        // then - verify the output
+        assertThat(results).extracting(BatchSaveResult::status).containsExactly(
+                BatchSaveResult.Status.CREATED,
+                BatchSaveResult.Status.DUPLICATE,
+                BatchSaveResult.Status.DUPLICATE,
+                BatchSaveResult.Status.INVALID);
+        verify(employeeRepository, times(1)).findExistingEmails(anyCollection());
+        verify(employeeRepository).saveAll(anyCollection());
+        verify(employeeRepository).flush();
+    }
+
+    @DisplayName("Unit test for saveEmployees treating emails that differ only in case as duplicates")
+    @Test
+    void givenEmailsDifferingInCase_whenSaveEmployees_thenReportDuplicates(){
+        // given - precondition or setup
+        Employee existing = Employee.builder().firstName("Tony").lastName("Stark").email("Stark@Gmail.com").build();
+        Employee repeated = Employee.builder().firstName("Ernest").lastName("Sarfo").email("SARFO@gmail.com").build();
+        given(emailFilter.mightContain(anyString())).willReturn(true);
+        given(employeeRepository.findExistingEmails(List.of("sarfo@gmail.com", "stark@gmail.com")))
+                .willReturn(Set.of("STARK@gmail.com"));
+
+        // when - action or behaviour to be tested
+        List<BatchSaveResult> results = employeeService.saveEmployees(List.of(employee, existing, repeated));
+
+        // then - verify the output
+        assertThat(results).extracting(BatchSaveResult::status).containsExactly(
+                BatchSaveResult.Status.CREATED,
+                BatchSaveResult.Status.DUPLICATE,
+                BatchSaveResult.Status.DUPLICATE);
+    }
+
+    @DisplayName("Unit test for saveEmployees rejecting over-long and malformed rows before the insert")
+    @Test
+    void givenOverlongNameAndMalformedEmail_whenSaveEmployees_thenRejectOnlyThoseRows(){
+        // given - precondition or setup
+        Employee overlong = Employee.builder().firstName("x".repeat(256)).lastName("Stark").email("stark@gmail.com").build();
+        Employee malformed = Employee.builder().firstName("Tony").lastName("Stark").email("not an email").build();
+        given(emailFilter.mightContain(anyString())).willReturn(false);
+
+        // when - action or behaviour to be tested
+        List<BatchSaveResult> results = employeeService.saveEmployees(List.of(employee, overlong, malformed));
+
+        // then - verify the output
+        assertThat(results).extracting(BatchSaveResult::status).containsExactly(
+                BatchSaveResult.Status.CREATED,
+                BatchSaveResult.Status.INVALID,
+                BatchSaveResult.Status.INVALID);
+        verify(employeeRepository).saveAll(List.of(employee));
+    }
+
+    @DisplayName("Unit test for saveEmployees retrying a chunk row by row when the insert hits a constraint")
+    @Test
+    void givenChunkViolatingConstraint_whenSaveEmployees_thenRejectOnlyTheFailingRow(){
+        // given - precondition or setup
+        Employee racing = Employee.builder().firstName("Tony").lastName("Stark").email("stark@gmail.com").build();
+        given(emailFilter.mightContain(anyString())).willReturn(false);
+        given(employeeRepository.saveAll(anyCollection())).willAnswer(invocation -> {
+            Collection<Employee> saved = invocation.getArgument(0);
+            if (saved.contains(racing)) {
+                throw new DataIntegrityViolationException("uk_employees_email");
+            }
+            return List.copyOf(saved);
+        });
+        given(employeeRepository.findExistingEmails(List.of("stark@gmail.com"))).willReturn(Set.of("stark@gmail.com"));
+
+        // when - action or behaviour to be tested
+        List<BatchSaveResult> results = employeeService.saveEmployees(List.of(employee, racing));
+
+        // then - verify the output
+        assertThat(results).extracting(BatchSaveResult::status).containsExactly(
+                BatchSaveResult.Status.CREATED,
+                BatchSaveResult.Status.DUPLICATE);
+        verify(employeeRepository).saveAll(List.of(employee));
+        verify(emailFilter).put(employee.getEmail());
+        verify(emailFilter, never()).put(racing.getEmail());
+        verify(searchIndex, never()).put(racing);
+    }
+
+    @DisplayName("Unit test for exportEmployees reading keyset pages until a short one")
+    @Test
+    void givenMoreThanOnePage_whenExportEmployees_thenSeekPastEachPage(){
+        // given - precondition or setup
+        List<Employee> fullPage = LongStream.rangeClosed(1, EmployeeServiceImpl.EXPORT_PAGE_SIZE)
+                .mapToObj(id -> Employee.builder().id(id).firstName("first").lastName("last").build())
+                .toList();
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(EmployeeServiceImpl.EXPORT_PAGE_SIZE)))
+                .willReturn(fullPage);
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc((long) EmployeeServiceImpl.EXPORT_PAGE_SIZE,
+                Limit.of(EmployeeServiceImpl.EXPORT_PAGE_SIZE)))
+                .willReturn(List.of(employee));
+        List<Employee> exported = new ArrayList<>();
+
+        // when - action or behaviour to be tested
+        employeeService.exportEmployees(exported::add);
+
+        // then - verify the output
+        assertThat(exported).hasSize(EmployeeServiceImpl.EXPORT_PAGE_SIZE + 1).endsWith(employee);
+        verify(employeeRepository, times(2)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+        verify(transactionManager, times(2)).commit(any());
     }
 
     @DisplayName("Unit test for getAllEmployeesMethod")
@@ -115,6 +311,60 @@ class EmployeeServiceImplTest {
         assertThat(employees).isEmpty();
     }
 
+    @DisplayName("Unit test for getEmployees keyset page")
+    @Test
+    void givenMoreRowsThanLimit_whenGetEmployees_thenReturnPageWithNextCursor(){
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("stark@gmail.com")
+                .build();
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .willReturn(List.of(employee, employee1));
+
+        // when - action or behaviour to be tested
+        CursorPage<Employee> page = employeeService.getEmployees(0L, 1);
+
+        // then - verify the output
+        assertThat(page.items()).containsExactly(employee);
+        assertThat(page.nextCursor()).isEqualTo(1L);
+    }
+
+    @DisplayName("Unit test for getEmployees caps the page size")
+    @Test
+    void givenLimitAboveMax_whenGetEmployees_thenPageSizeIsCapped(){
+        // given - precondition or setup
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(EmployeeServiceImpl.MAX_PAGE_SIZE + 1)))
+                .willReturn(List.of(employee));
+
+        // when - action or behaviour to be tested
+        CursorPage<Employee> page = employeeService.getEmployees(0L, 100_000);
+
+        // then - verify the output
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @DisplayName("Unit test for getEmployeeFields always selecting the id")
+    @Test
+    void givenEmailField_whenGetEmployeeFields_thenSelectIdAndEmail(){
+        // given - precondition or setup
+        List<Map<String, Object>> rows = List.of(
+                Map.of("id", 1L, "email", "sarfo@gmail.com"),
+                Map.of("id", 2L, "email", "stark@gmail.com"));
+        given(employeeRepository.findFieldsByIdGreaterThan(0L, 2, EnumSet.of(EmployeeField.ID, EmployeeField.EMAIL)))
+                .willReturn(rows);
+
+        // when - action or behaviour to be tested
+        CursorPage<Map<String, Object>> page = employeeService.getEmployeeFields(0L, 1, EnumSet.of(EmployeeField.EMAIL));
+
+        // then - verify the output
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isEqualTo(1L);
+    }
+
     @DisplayName("Unit test for get employee by id method")
     @Test
     void givenEmployeeId_whenFindById_thenReturnEmployeeObject(){
@@ -129,6 +379,44 @@ class EmployeeServiceImplTest {
         assertThat(savedEmployee.get().getId()).isEqualTo(1L);
     }
 
+    @DisplayName("Unit test for get employee by id served from the cache")
+    @Test
+    void givenCachedEmployee_whenFindByIdTwice_thenRepositoryIsHitOnce(){
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+
+        // when - action or behaviour to be tested
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cached = employeeService.getEmployeeById(1L);
+        employeeService.getEmployeeById(2L);
+        Optional<Employee> cachedMiss = employeeService.getEmployeeById(2L);
+
+        // then - verify the output
+        assertThat(cached).contains(employee);
+        assertThat(cachedMiss).isEmpty();
+        verify(employeeRepository, times(1)).findById(1L);
+        verify(employeeRepository, times(1)).findById(2L);
+    }
+
+    @DisplayName("Unit test for update employee invalidating the cache")
+    @Test
+    void givenCachedEmployee_whenUpdateEmployee_thenNextGetReloads(){
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee)).willReturn(employee);
+        employeeService.getEmployeeById(1L);
+
+        // when - action or behaviour to be tested
+        employeeService.updateEmployee(employee);
+        employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        // no transaction here, so the after-commit eviction runs straight away
+        verify(employeeCache, times(2)).invalidate(1L);
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
     @DisplayName("Unit test for update employee method")
     @Test
     void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee(){
@@ -145,19 +433,156 @@ class EmployeeServiceImplTest {
         // then - verify the output
         assertThat(updatedEmployee).isNotNull();
         assertThat(updatedEmployee.getFirstName()).isEqualTo("travis");
+        verify(searchIndex).put(updatedEmployee);
     }
 
     @DisplayName("Unit test for delete employee method")
     @Test
-    void givenEmployee_whenDeleteEmployee_thenReturnNothing(){
+    void givenEmployee_whenDeleteEmployee_thenReturnTrueAndEvict(){
         // given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteByIds(List.of(employeeId))).willReturn(1);
+
+        // when - action or behaviour to be tested
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        // then - verify the output
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteByIds(List.of(employeeId));
+        verify(employeeRepository, never()).deleteById(anyLong());
+        verify(searchIndex).removeAll(List.of(employeeId));
+        verify(employeeCache, times(2)).invalidate(employeeId);
+    }
+
+    @DisplayName("Unit test for bulk delete by ids")
+    @Test
+    void givenIds_whenDeleteEmployees_thenDeleteInChunksAndReturnRealCount(){
+        // given - precondition or setup
+        List<Long> ids = LongStream.rangeClosed(1, EmployeeServiceImpl.BATCH_CHUNK_SIZE + 1).boxed().toList();
+        given(employeeRepository.deleteByIds(anyCollection())).willReturn(EmployeeServiceImpl.BATCH_CHUNK_SIZE - 2, 0);
+
+        // when - action or behaviour to be tested
+        int deleted = employeeService.deleteEmployees(ids);
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(EmployeeServiceImpl.BATCH_CHUNK_SIZE - 2);
+        verify(employeeRepository, times(2)).deleteByIds(anyCollection());
+        verify(emailFilter).recordDeletions(EmployeeServiceImpl.BATCH_CHUNK_SIZE - 2);
+    }
+
+    @DisplayName("Unit test for bulk delete by filter")
+    @Test
+    void givenFilter_whenDeleteEmployeesMatching_thenDeleteMatchingIds(){
+        // given - precondition or setup
+        Map<EmployeeField, String> filter = Map.of(EmployeeField.LAST_NAME, "stark");
+        given(employeeRepository.findIdsMatching(filter, 0L, EmployeeServiceImpl.BATCH_CHUNK_SIZE))
+                .willReturn(List.of(4L, 7L));
+        given(employeeRepository.deleteByIds(List.of(4L, 7L))).willReturn(2);
+
+        // when - action or behaviour to be tested
+        int deleted = employeeService.deleteEmployeesMatching(filter);
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(2);
+        verify(searchIndex).removeAll(List.of(4L, 7L));
+    }
+
+    @DisplayName("Unit test for list version bumped by writes")
+    @Test
+    void givenEmployee_whenUpdateEmployee_thenBumpsListVersion(){
+        // given - precondition or setup
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        // when - action or behaviour to be tested
+        employeeService.updateEmployee(employee);
+
+        // then - verify the output
+        verify(employeeRepository).bumpTableVersion();
+    }
+
+    @DisplayName("Unit test for a page carrying the list version read with it")
+    @Test
+    void givenListVersion_whenGetEmployees_thenPageCarriesVersion(){
+        // given - precondition or setup
+        given(employeeRepository.findTableVersion()).willReturn(7L);
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).willReturn(List.of(employee));
+
+        // when - action or behaviour to be tested
+        CursorPage<Employee> page = employeeService.getEmployees(0L, 10);
+
+        // then - verify the output
+        assertThat(page.version()).isEqualTo("7");
+    }
+
+    @DisplayName("Unit test for targeted update of changed fields")
+    @Test
+    void givenMatchingVersion_whenUpdateEmployeeFields_thenReturnNextVersion(){
+        // given - precondition or setup
+        Map<EmployeeField, String> changes = Map.of(EmployeeField.EMAIL, "new@gmail.com");
+        given(employeeRepository.updateFields(1L, 3L, changes)).willReturn(1);
+
+        // when - action or behaviour to be tested
+        OptionalLong version = employeeService.updateEmployeeFields(1L, 3L, changes);
+
+        // then - verify the output
+        assertThat(version).hasValue(4L);
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(emailFilter).put("new@gmail.com");
+        verify(emailFilter).recordDeletions(1);
+        // no transaction here, so the after-commit eviction runs straight away
+        verify(employeeCache, times(2)).invalidate(1L);
+    }
+
+    @DisplayName("Unit test for targeted update evicting a row re-cached before commit")
+    @Test
+    void givenReadBeforeCommit_whenUpdateEmployeeFieldsCommits_thenStaleRowEvicted(){
+        // given - precondition or setup
+        Map<EmployeeField, String> changes = Map.of(EmployeeField.EMAIL, "new@gmail.com");
+        given(employeeRepository.updateFields(1L, 3L, changes)).willReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.updateEmployeeFields(1L, 3L, changes);
+            // a concurrent GET that still sees the uncommitted row's old state
+            employeeCache.get(1L, id -> Optional.of(employee));
+
+            // when - action or behaviour to be tested
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then - verify the output
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty());
+        assertThat(employeeService.getEmployeeById(1L)).isEmpty();
+    }
+
+    @DisplayName("Unit test for targeted update with a stale version")
+    @Test
+    void givenStaleVersion_whenUpdateEmployeeFields_thenThrowsOptimisticLockingFailure(){
+        // given - precondition or setup
+        Map<EmployeeField, String> changes = Map.of(EmployeeField.FIRST_NAME, "travis");
+        given(employeeRepository.updateFields(1L, 2L, changes)).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+
+        // when - action or behaviour to be tested
+        // then - verify the output
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> employeeService.updateEmployeeFields(1L, 2L, changes));
+        verify(employeeCache, never()).invalidate(1L);
+    }
+
+    @DisplayName("Unit test for targeted update of a missing employee")
+    @Test
+    void givenMissingEmployee_whenUpdateEmployeeFields_thenReturnEmpty(){
+        // given - precondition or setup
+        Map<EmployeeField, String> changes = Map.of(EmployeeField.FIRST_NAME, "travis");
+        given(employeeRepository.updateFields(9L, 0L, changes)).willReturn(0);
+        given(employeeRepository.existsById(9L)).willReturn(false);
 
         // when - action or behaviour to be tested
-        employeeService.deleteEmployee(employeeId);
+        OptionalLong version = employeeService.updateEmployeeFields(9L, 0L, changes);
 
         // then - verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        assertThat(version).isEmpty();
     }
-}
\ No newline at end of file
+}